@@ -25,11 +25,27 @@ import reactor.ipc.netty.http.client.HttpClient;
  */
 public interface ConnectionContext {
 
+    /**
+     * Whether directories and application bits are uploaded as they are compressed, using chunked transfer encoding.  When {@code false}, they are staged in a temporary file so that the request can
+     * be sent with a {@code Content-Length}, for servers that require one.  Application bits supplied as a {@code Flux} are always streamed.  Defaults to
+     * {@code true}.
+     */
+    default Boolean getChunkedUploads() {
+        return true;
+    }
+
     /**
      * The {@link HttpClient} to use
      */
     HttpClient getHttpClient();
 
+    /**
+     * The {@link HttpExchangeListener} to notify of each HTTP exchange.  Defaults to {@link HttpExchangeListener#NONE}.
+     */
+    default HttpExchangeListener getHttpExchangeListener() {
+        return HttpExchangeListener.NONE;
+    }
+
     /**
      * The {@link ObjectMapper} to use
      */
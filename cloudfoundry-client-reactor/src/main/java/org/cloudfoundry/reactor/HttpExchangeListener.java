@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+/**
+ * A listener that is notified of every HTTP exchange made by the client
+ */
+@FunctionalInterface
+public interface HttpExchangeListener {
+
+    /**
+     * A listener that does nothing
+     */
+    HttpExchangeListener NONE = exchange -> {
+    };
+
+    /**
+     * Called when an exchange completes, either because the response has been fully received or because it has failed.  Called on a network thread, so implementations must not block.
+     *
+     * @param exchange the completed exchange
+     */
+    void onExchange(HttpExchange exchange);
+
+}
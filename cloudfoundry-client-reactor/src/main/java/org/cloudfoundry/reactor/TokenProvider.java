@@ -40,4 +40,15 @@ public interface TokenProvider {
     default void invalidate(ConnectionContext connectionContext) {
     }
 
+    /**
+     * Called when a {@code 401 UNAUTHORIZED} is received as part of a request that was made with {@code token}.  Implementations that renew tokens can use the token to ignore late failures of
+     * requests made with a token that has already been replaced.  The default implementation calls {@link #invalidate(ConnectionContext)}.
+     *
+     * @param connectionContext A {@link ConnectionContext} to be used if a token needs to be retrieved via a network request
+     * @param token             the token the failed request was made with
+     */
+    default void invalidate(ConnectionContext connectionContext, String token) {
+        invalidate(connectionContext);
+    }
+
 }
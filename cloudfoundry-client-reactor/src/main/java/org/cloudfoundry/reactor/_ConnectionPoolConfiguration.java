@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Connection pool configuration
+ */
+@Value.Immutable
+abstract class _ConnectionPoolConfiguration {
+
+    /**
+     * How long to wait for a connection before failing the request.  Defaults to waiting indefinitely.
+     */
+    abstract Optional<Duration> getAcquireTimeout();
+
+    /**
+     * The maximum number of connections
+     */
+    abstract Optional<Integer> getMaxConnections();
+
+    /**
+     * How long a connection may be unused before it is closed instead of reused
+     */
+    abstract Optional<Duration> getMaxIdleTime();
+
+    /**
+     * How long a connection may be open before it is closed instead of reused
+     */
+    abstract Optional<Duration> getMaxLifetime();
+
+    /**
+     * The maximum number of requests waiting for a connection.  Defaults to no limit.
+     */
+    abstract Optional<Integer> getMaxPendingAcquires();
+
+}
@@ -20,7 +20,9 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import org.cloudfoundry.reactor.util.ConnectionPools;
 import org.cloudfoundry.reactor.util.DefaultSslCertificateTruster;
+import org.cloudfoundry.reactor.util.InfoCache;
 import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.NetworkLogging;
 import org.cloudfoundry.reactor.util.SslCertificateTruster;
@@ -37,6 +39,8 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -63,19 +67,44 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int UNDEFINED_PORT = -1;
 
+    private final ConcurrentMap<String, DerivedRoot> roots = new ConcurrentHashMap<>();
+
+    /**
+     * Whether directories and application bits are uploaded using chunked transfer encoding.  Some proxies and load balancers in front of Cloud Foundry reject chunked requests; set this to
+     * {@code false} to stage uploads in a temporary file and send them with a {@code Content-Length} instead.  Defaults to {@code true}.
+     */
+    @Override
+    @Value.Default
+    public Boolean getChunkedUploads() {
+        return true;
+    }
+
     @Value.Default
     public Integer getConnectionPoolSize() {
         return 2 * PoolResources.DEFAULT_POOL_MAX_CONNECTION;
     }
 
+    /**
+     * The connection pools shared by all requests, with a pool per remote address.  Exposes the number of active and idle connections and of pending acquires.
+     */
+    @Value.Derived
+    public ConnectionPools getConnectionPools() {
+        ConnectionPoolConfiguration defaultConfiguration = ConnectionPoolConfiguration.builder()
+            .maxConnections(getConnectionPoolSize())
+            .from(getConnectionPoolConfiguration().orElse(ConnectionPoolConfiguration.builder().build()))
+            .build();
+
+        return new ConnectionPools(defaultConfiguration, getHostConnectionPoolConfigurations());
+    }
+
     @Override
     @Value.Default
     public HttpClient getHttpClient() {
         return HttpClient.create(options -> {
             options
-                .option(SO_SNDBUF, SEND_BUFFER_SIZE)
-                .option(SO_RCVBUF, RECEIVE_BUFFER_SIZE)
-                .poolResources(PoolResources.fixed("cloudfoundry-client", getConnectionPoolSize()));
+                .option(SO_SNDBUF, getSendBufferSize())
+                .option(SO_RCVBUF, getReceiveBufferSize())
+                .poolResources(getConnectionPools());
 
             getKeepAlive().ifPresent(keepAlive -> options.option(SO_KEEPALIVE, keepAlive));
             getProxyConfiguration().ifPresent(c -> options.proxy(ClientOptions.Proxy.HTTP, c.getHost(), c.getPort().orElse(null), c.getUsername().orElse(null), u -> c.getPassword().orElse(null)));
@@ -86,6 +115,23 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         });
     }
 
+    /**
+     * The listener notified of each HTTP exchange.  Defaults to a listener that does nothing.
+     */
+    @Override
+    @Value.Default
+    public HttpExchangeListener getHttpExchangeListener() {
+        return HttpExchangeListener.NONE;
+    }
+
+    /**
+     * The cache of {@code /v2/info} payloads.  Share an instance between contexts to avoid requesting the payload for the same API root more than once.  Defaults to a new {@link InfoCache}.
+     */
+    @Value.Default
+    public InfoCache getInfoCache() {
+        return new InfoCache();
+    }
+
     @Override
     @Value.Default
     public ObjectMapper getObjectMapper() {
@@ -105,6 +151,14 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return DEFAULT_PORT;
     }
 
+    /**
+     * The {@code SO_RCVBUF} value.  Defaults to 10 MiB.
+     */
+    @Value.Default
+    public Integer getReceiveBufferSize() {
+        return RECEIVE_BUFFER_SIZE;
+    }
+
     @Value.Derived
     public Mono<String> getRoot() {
         Integer port = getPort();
@@ -119,13 +173,42 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return Mono.just(components.toUriString());
     }
 
+    /**
+     * Returns the root for a key of the {@code /v2/info} payload.  The root is derived (and trusted, if SSL validation is skipped) once per payload, and derived again only when the payload has been
+     * refreshed in the {@link InfoCache}.
+     */
     @Override
     public Mono<String> getRoot(String key) {
         return getInfo()
-            .map(info -> normalize(UriComponentsBuilder.fromUriString(info.get(key)), getScheme()))
-            .doOnNext(components -> trust(components, getSslCertificateTruster()))
-            .map(UriComponents::toUriString)
-            .cache();
+            .map(info -> {
+                DerivedRoot root = this.roots.get(key);
+
+                if (root == null || root.info != info) {
+                    UriComponents components = normalize(UriComponentsBuilder.fromUriString(info.get(key)), getScheme());
+                    trust(components, getSslCertificateTruster());
+
+                    root = new DerivedRoot(info, components.toUriString());
+                    this.roots.put(key, root);
+                }
+
+                return root.uri;
+            });
+    }
+
+    /**
+     * The {@code SO_SNDBUF} value.  Defaults to 10 MiB.
+     */
+    @Value.Default
+    public Integer getSendBufferSize() {
+        return SEND_BUFFER_SIZE;
+    }
+
+    /**
+     * Revalidates the cached {@code /v2/info} payload in the background.  Roots returned by {@link #getRoot(String)} pick up the new payload once it has been received.
+     */
+    public void refreshInfo() {
+        getRoot()
+            .subscribe(root -> getInfoCache().refresh(root, requestInfo(root)));
     }
 
     @Value.Check
@@ -142,18 +225,21 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract String getApiHost();
 
-    @SuppressWarnings("unchecked")
+    /**
+     * The configuration of the connection pools of hosts without a specific configuration.  The maximum number of connections defaults to {@link #getConnectionPoolSize()}.
+     */
+    abstract Optional<ConnectionPoolConfiguration> getConnectionPoolConfiguration();
+
+    /**
+     * The configuration of the connection pools of specific hosts (e.g. the UAA or Doppler hosts), keyed by host name.  Values that are not specified are taken from
+     * {@link #getConnectionPoolConfiguration()}.
+     */
+    abstract Map<String, ConnectionPoolConfiguration> getHostConnectionPoolConfigurations();
+
     @Value.Derived
     Mono<Map<String, String>> getInfo() {
         return getRoot()
-            .map(uri -> UriComponentsBuilder.fromUriString(uri).pathSegment("v2", "info").build().toUriString())
-            .then(uri -> getHttpClient()
-                .get(uri)
-                .doOnSubscribe(NetworkLogging.get(uri))
-                .transform(NetworkLogging.response(uri)))
-            .transform(JsonCodec.decode(getObjectMapper(), Map.class))
-            .map(m -> (Map<String, String>) m)
-            .cache();
+            .then(root -> getInfoCache().get(root, requestInfo(root)));
     }
 
     /**
@@ -225,4 +311,29 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         sslCertificateTruster.ifPresent(t -> t.trust(components.getHost(), components.getPort(), Duration.ofSeconds(30)));
     }
 
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, String>> requestInfo(String root) {
+        String uri = UriComponentsBuilder.fromUriString(root).pathSegment("v2", "info").build().toUriString();
+
+        return getHttpClient()
+            .get(uri)
+            .doOnSubscribe(NetworkLogging.get(uri))
+            .transform(NetworkLogging.response(uri))
+            .transform(JsonCodec.decode(getObjectMapper(), Map.class))
+            .map(m -> (Map<String, String>) m);
+    }
+
+    private static final class DerivedRoot {
+
+        private final Map<String, String> info;
+
+        private final String uri;
+
+        private DerivedRoot(Map<String, String> info, String uri) {
+            this.info = info;
+            this.uri = uri;
+        }
+
+    }
+
 }
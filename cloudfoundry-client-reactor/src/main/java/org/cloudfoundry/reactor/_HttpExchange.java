@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A completed HTTP exchange
+ */
+@Value.Immutable
+abstract class _HttpExchange {
+
+    /**
+     * The number of payload bytes received
+     */
+    abstract Long getBytesIn();
+
+    /**
+     * The number of payload bytes sent
+     */
+    abstract Long getBytesOut();
+
+    /**
+     * The error that terminated the exchange, if any
+     */
+    abstract Optional<Throwable> getError();
+
+    /**
+     * The time from subscription until the exchange completed
+     */
+    abstract Duration getLatency();
+
+    /**
+     * The request method
+     */
+    abstract String getMethod();
+
+    /**
+     * The request path with identifiers replaced by {@code {id}} (e.g. {@code /v2/apps/{id}/routes})
+     */
+    abstract String getPath();
+
+    /**
+     * The response status code, if a response was received
+     */
+    abstract Optional<Integer> getStatus();
+
+    /**
+     * The time from subscription until the response headers were received, if a response was received
+     */
+    abstract Optional<Duration> getTimeToFirstByte();
+
+}
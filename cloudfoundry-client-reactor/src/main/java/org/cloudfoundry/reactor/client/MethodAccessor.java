@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.client;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * An accessor for a no-argument method.  The method is resolved to a {@link MethodHandle} once, so that repeated invocations avoid reflective lookup and argument array allocation.
+ * <p>
+ * This class is an implementation detail of the request builders.  It is public, like {@link MethodNameComparator}, only so that the {@code FilterBuilder}s in the {@code v2} and {@code v3}
+ * packages can share it with {@link QueryBuilder}, and is not intended to be used outside of this module.
+ */
+public final class MethodAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final MethodHandle handle;
+
+    /**
+     * Creates a new instance
+     *
+     * @param method the no-argument method to access
+     */
+    public MethodAccessor(Method method) {
+        ReflectionUtils.makeAccessible(method);
+
+        try {
+            this.handle = MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(String.format("Cannot access method %s", method), e);
+        }
+    }
+
+    /**
+     * Invokes the method
+     *
+     * @param instance the instance to invoke the method on
+     * @return the value returned by the method
+     */
+    public Object invoke(Object instance) {
+        try {
+            return this.handle.invokeExact(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+}
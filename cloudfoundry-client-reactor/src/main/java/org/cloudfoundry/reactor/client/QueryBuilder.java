@@ -22,8 +22,10 @@ import org.springframework.util.ReflectionUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -31,39 +33,66 @@ import java.util.stream.Collectors;
  */
 public final class QueryBuilder {
 
+    private static final ClassValue<List<Parameter>> PARAMETERS = new ClassValue<List<Parameter>>() {
+
+        @Override
+        protected List<Parameter> computeValue(Class<?> type) {
+            Method[] methods = ReflectionUtils.getAllDeclaredMethods(type);
+            Arrays.sort(methods, MethodNameComparator.INSTANCE);
+
+            List<Parameter> parameters = new ArrayList<>();
+            for (Method method : methods) {
+                QueryParameter queryParameter = AnnotationUtils.getAnnotation(method, QueryParameter.class);
+                if (queryParameter != null) {
+                    parameters.add(new Parameter(new MethodAccessor(method), queryParameter.value(), queryParameter.delimiter()));
+                }
+            }
+
+            return parameters;
+        }
+
+    };
+
     private QueryBuilder() {
     }
 
     /**
-     * Augments a {@link UriComponentsBuilder} with queries based on the methods annotated with {@link QueryParameter}
+     * Augments a {@link UriComponentsBuilder} with queries based on the methods annotated with {@link QueryParameter}.  The annotated methods of each type are resolved once and cached.
      *
      * @param builder  the builder to augment
      * @param instance the instance to inspect and invoke
      */
     public static void augment(UriComponentsBuilder builder, Object instance) {
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(instance.getClass());
-        Arrays.sort(methods, MethodNameComparator.INSTANCE);
-
-        for (Method method : methods) {
-            QueryParameter queryParameter = AnnotationUtils.getAnnotation(method, QueryParameter.class);
-            if (queryParameter == null) {
-                continue;
-            }
-
-            ReflectionUtils.makeAccessible(method);
-            Object value = ReflectionUtils.invokeMethod(method, instance);
+        for (Parameter parameter : PARAMETERS.get(instance.getClass())) {
+            Object value = parameter.accessor.invoke(instance);
 
             if (value != null) {
 
                 if (value instanceof Collection) {
-                    builder.queryParam(queryParameter.value(), ((Collection<?>) value).stream()
+                    builder.queryParam(parameter.name, ((Collection<?>) value).stream()
                         .map(Object::toString)
-                        .collect(Collectors.joining(queryParameter.delimiter())));
+                        .collect(Collectors.joining(parameter.delimiter)));
                 } else {
-                    builder.queryParam(queryParameter.value(), value);
+                    builder.queryParam(parameter.name, value);
                 }
             }
         }
     }
 
+    private static final class Parameter {
+
+        private final MethodAccessor accessor;
+
+        private final String delimiter;
+
+        private final String name;
+
+        private Parameter(MethodAccessor accessor, String name, String delimiter) {
+            this.accessor = accessor;
+            this.delimiter = delimiter;
+            this.name = name;
+        }
+
+    }
+
 }
@@ -23,9 +23,11 @@ import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.cloudfoundry.reactor.util.ErrorPayloadMapper;
 import org.reactivestreams.Publisher;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.util.function.Tuple2;
 
 import java.util.function.Function;
 
@@ -64,6 +66,14 @@ public abstract class AbstractClientV2Operations extends AbstractReactorOperatio
             ErrorPayloadMapper.clientV2(this.connectionContext.getObjectMapper()));
     }
 
+    protected final <T, U> Flux<Tuple2<U, T>> getResources(Object requestPayload, Class<U> pageType, Class<T> resourceType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
+        return doGetResources(pageType, resourceType,
+            queryTransformer(requestPayload)
+                .andThen(uriTransformer),
+            outbound -> outbound,
+            ErrorPayloadMapper.clientV2(this.connectionContext.getObjectMapper()));
+    }
+
     protected final <T> Mono<T> post(Object requestPayload, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
         return doPost(requestPayload, responseType,
             queryTransformer(requestPayload)
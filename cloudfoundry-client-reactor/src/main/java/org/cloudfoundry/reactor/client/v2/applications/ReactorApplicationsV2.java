@@ -16,10 +16,13 @@
 
 package org.cloudfoundry.reactor.client.v2.applications;
 
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
 import org.cloudfoundry.client.v2.applications.ApplicationEnvironmentRequest;
 import org.cloudfoundry.client.v2.applications.ApplicationEnvironmentResponse;
 import org.cloudfoundry.client.v2.applications.ApplicationInstancesRequest;
 import org.cloudfoundry.client.v2.applications.ApplicationInstancesResponse;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.ApplicationStatisticsRequest;
 import org.cloudfoundry.client.v2.applications.ApplicationStatisticsResponse;
 import org.cloudfoundry.client.v2.applications.ApplicationsV2;
@@ -54,14 +57,21 @@ import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v2.AbstractClientV2Operations;
+import org.cloudfoundry.reactor.util.ChannelDownloads;
+import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
+import org.cloudfoundry.reactor.util.UploadStaging;
+import org.cloudfoundry.util.FileUtils;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
+import reactor.util.function.Tuple2;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * The Reactor-based implementation of {@link ApplicationsV2}
@@ -108,12 +118,24 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
             .flatMap(response -> response.receive().asByteArray());
     }
 
+    @Override
+    public Mono<ChannelDownloadResult> download(DownloadApplicationRequest request, ChannelDownload download) {
+        return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "download"), outbound -> outbound.map(HttpClientRequest::followRedirect))
+            .then(response -> ChannelDownloads.write(response.receive(), download));
+    }
+
     @Override
     public Flux<byte[]> downloadDroplet(DownloadApplicationDropletRequest request) {
         return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), outbound -> outbound.map(HttpClientRequest::followRedirect))
             .flatMap(response -> response.receive().asByteArray());
     }
 
+    @Override
+    public Mono<ChannelDownloadResult> downloadDroplet(DownloadApplicationDropletRequest request, ChannelDownload download) {
+        return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), outbound -> outbound.map(HttpClientRequest::followRedirect))
+            .then(response -> ChannelDownloads.write(response.receive(), download));
+    }
+
     @Override
     public Mono<ApplicationEnvironmentResponse> environment(ApplicationEnvironmentRequest request) {
         return get(request, ApplicationEnvironmentResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "env"));
@@ -134,6 +156,11 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
         return get(request, ListApplicationsResponse.class, builder -> builder.pathSegment("v2", "apps"));
     }
 
+    @Override
+    public Flux<Tuple2<ListApplicationsResponse, ApplicationResource>> listResources(ListApplicationsRequest request) {
+        return getResources(request, ListApplicationsResponse.class, ApplicationResource.class, builder -> builder.pathSegment("v2", "apps"));
+    }
+
     @Override
     public Mono<ListApplicationRoutesResponse> listRoutes(ListApplicationRoutesRequest request) {
         return get(request, ListApplicationRoutesResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "routes"));
@@ -184,19 +211,60 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
     public Mono<UploadApplicationResponse> upload(UploadApplicationRequest request) {
         return put(request, UploadApplicationResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "bits"),
             outbound -> outbound
-                .flatMap(r -> r
-                    .chunkedTransfer(false)
-                    .sendForm(form -> {
-                        try (InputStream resources = new ByteArrayInputStream(this.connectionContext.getObjectMapper().writeValueAsBytes(request.getResources()))) {
-                            form
-                                .multipart(true)
-                                .textFile("resources", resources, APPLICATION_JSON)
-                                .file("application", "application.zip", request.getApplication().toFile(), APPLICATION_ZIP);
-                        } catch (IOException e) {
-                            throw Exceptions.propagate(e);
-                        }
-                    }))
+                .flatMap(r -> {
+                    if (request.getApplicationBits() != null) {
+                        return uploadBits(r, request);
+                    }
+
+                    if (Files.isDirectory(request.getApplication())) {
+                        return uploadDirectory(r, request);
+                    }
+
+                    return uploadFile(r, request, request.getApplication());
+                })
                 .then());
     }
 
+    private byte[] getResources(UploadApplicationRequest request) {
+        try {
+            return this.connectionContext.getObjectMapper().writeValueAsBytes(request.getResources());
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private Mono<Void> uploadBits(HttpClientRequest outbound, UploadApplicationRequest request) {
+        return new MultipartHttpClientRequest(outbound)
+            .addPart("resources", APPLICATION_JSON, getResources(request))
+            .addPart("application", "application.zip", APPLICATION_ZIP, request.getApplicationBits())
+            .done();
+    }
+
+    private Mono<Void> uploadDirectory(HttpClientRequest outbound, UploadApplicationRequest request) {
+        if (!this.connectionContext.getChunkedUploads()) {
+            return UploadStaging.compressed(request.getApplication(), staging -> uploadFile(outbound, request, staging));
+        }
+
+        return new MultipartHttpClientRequest(outbound)
+            .addPart("resources", APPLICATION_JSON, getResources(request))
+            .addPart("application", "application.zip", APPLICATION_ZIP, () -> FileUtils.toInputStream(request.getApplication()))
+            .done();
+    }
+
+    private Mono<Void> uploadFile(HttpClientRequest outbound, UploadApplicationRequest request, Path application) {
+        return outbound
+            .chunkedTransfer(false)
+            .sendForm(form -> {
+                try (InputStream resources = new ByteArrayInputStream(getResources(request))) {
+                    form
+                        .multipart(true)
+                        .textFile("resources", resources, APPLICATION_JSON)
+                        .file("application", "application.zip", application.toFile(), APPLICATION_ZIP);
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+            })
+            .then();
+    }
+
 }
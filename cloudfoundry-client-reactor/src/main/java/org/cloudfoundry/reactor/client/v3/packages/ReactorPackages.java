@@ -16,6 +16,8 @@
 
 package org.cloudfoundry.reactor.client.v3.packages;
 
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
 import org.cloudfoundry.client.v3.packages.CopyPackageRequest;
 import org.cloudfoundry.client.v3.packages.CopyPackageResponse;
 import org.cloudfoundry.client.v3.packages.CreatePackageRequest;
@@ -34,14 +36,24 @@ import org.cloudfoundry.client.v3.packages.UploadPackageResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v3.AbstractClientV3Operations;
+import org.cloudfoundry.reactor.util.ChannelDownloads;
+import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
+import org.cloudfoundry.reactor.util.UploadStaging;
+import org.cloudfoundry.util.FileUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * The Reactor-based implementation of {@link Packages}
  */
 public final class ReactorPackages extends AbstractClientV3Operations implements Packages {
 
+    private final ConnectionContext connectionContext;
+
     /**
      * Creates an instance
      *
@@ -51,6 +63,7 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
      */
     public ReactorPackages(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
         super(connectionContext, root, tokenProvider);
+        this.connectionContext = connectionContext;
     }
 
     @Override
@@ -74,6 +87,12 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
             .flatMap(response -> response.receive().aggregate().asByteArray());
     }
 
+    @Override
+    public Mono<ChannelDownloadResult> download(DownloadPackageRequest request, ChannelDownload download) {
+        return get(request, builder -> builder.pathSegment("v3", "packages", request.getPackageId(), "download"))
+            .then(response -> ChannelDownloads.write(response.receive(), download));
+    }
+
     @Override
     public Mono<GetPackageResponse> get(GetPackageRequest request) {
         return get(request, GetPackageResponse.class, builder -> builder.pathSegment("v3", "packages", request.getPackageId()));
@@ -93,12 +112,33 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
     public Mono<UploadPackageResponse> upload(UploadPackageRequest request) {
         return post(request, UploadPackageResponse.class, builder -> builder.pathSegment("v3", "packages", request.getPackageId(), "upload"),
             outbound -> outbound
-                .flatMap(r -> r
-                    .chunkedTransfer(false)
-                    .sendForm(form -> form
-                        .multipart(true)
-                        .file("bits", "application.zip", request.getBits().toFile(), APPLICATION_ZIP)))
+                .flatMap(r -> {
+                    if (Files.isDirectory(request.getBits())) {
+                        return uploadDirectory(r, request);
+                    }
+
+                    return uploadFile(r, request.getBits());
+                })
                 .then());
     }
 
+    private Mono<Void> uploadDirectory(HttpClientRequest outbound, UploadPackageRequest request) {
+        if (!this.connectionContext.getChunkedUploads()) {
+            return UploadStaging.compressed(request.getBits(), staging -> uploadFile(outbound, staging));
+        }
+
+        return new MultipartHttpClientRequest(outbound)
+            .addPart("bits", "application.zip", APPLICATION_ZIP, () -> FileUtils.toInputStream(request.getBits()))
+            .done();
+    }
+
+    private static Mono<Void> uploadFile(HttpClientRequest outbound, Path bits) {
+        return outbound
+            .chunkedTransfer(false)
+            .sendForm(form -> form
+                .multipart(true)
+                .file("bits", "application.zip", bits.toFile(), APPLICATION_ZIP))
+            .then();
+    }
+
 }
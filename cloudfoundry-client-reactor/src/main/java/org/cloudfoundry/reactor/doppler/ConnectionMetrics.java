@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a single reconnecting firehose or stream connection
+ */
+public final class ConnectionMetrics {
+
+    private static final long CONNECTED = Long.MIN_VALUE;
+
+    private final AtomicLong disconnectedAt = new AtomicLong(CONNECTED);
+
+    private final LongAdder downtime = new LongAdder();
+
+    private final LongAdder messages = new LongAdder();
+
+    private final LongAdder reconnects = new LongAdder();
+
+    ConnectionMetrics() {
+    }
+
+    /**
+     * Returns the total time the connection has been down, from each failure until the first envelope received after reconnecting.  Includes the current outage, if any.
+     */
+    public Duration getDowntime() {
+        long disconnectedAt = this.disconnectedAt.get();
+        long current = disconnectedAt == CONNECTED ? 0 : System.nanoTime() - disconnectedAt;
+
+        return Duration.ofNanos(this.downtime.sum() + current);
+    }
+
+    /**
+     * Returns the number of envelopes received
+     */
+    public long getMessages() {
+        return this.messages.sum();
+    }
+
+    /**
+     * Returns the number of reconnection attempts
+     */
+    public long getReconnects() {
+        return this.reconnects.sum();
+    }
+
+    /**
+     * Returns whether the connection is currently up
+     */
+    public boolean isConnected() {
+        return this.disconnectedAt.get() == CONNECTED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionMetrics{connected=%s, messages=%d, reconnects=%d, downtime=%s}", isConnected(), getMessages(), getReconnects(), getDowntime());
+    }
+
+    void onDisconnect() {
+        this.disconnectedAt.compareAndSet(CONNECTED, System.nanoTime());
+    }
+
+    /**
+     * Records a received envelope
+     *
+     * @return {@code true} if the envelope is the first received since the connection was last down
+     */
+    boolean onMessage() {
+        this.messages.increment();
+
+        long disconnectedAt = this.disconnectedAt.get();
+        if (disconnectedAt != CONNECTED && this.disconnectedAt.compareAndSet(disconnectedAt, CONNECTED)) {
+            this.downtime.add(System.nanoTime() - disconnectedAt);
+            return true;
+        }
+
+        return false;
+    }
+
+    void onReconnect() {
+        this.reconnects.increment();
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import org.cloudfoundry.doppler.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link Predicate} that selects encoded envelopes by event type and origin without decoding them
+ */
+final class EnvelopeFilter implements Predicate<ByteBuf> {
+
+    private final boolean[] eventTypes;
+
+    private final byte[][] origins;
+
+    private EnvelopeFilter(boolean[] eventTypes, byte[][] origins) {
+        this.eventTypes = eventTypes;
+        this.origins = origins;
+    }
+
+    /**
+     * Creates a filter for the given event types and origins
+     *
+     * @param eventTypes the event types to select, or {@code null} to select all event types
+     * @param origins    the origins to select, or {@code null} to select all origins
+     * @return the filter, or {@link Optional#empty()} if all envelopes are selected
+     */
+    static Optional<EnvelopeFilter> of(Collection<EventType> eventTypes, Collection<String> origins) {
+        if (isEmpty(eventTypes) && isEmpty(origins)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new EnvelopeFilter(toEventTypes(eventTypes), toOrigins(origins)));
+    }
+
+    @Override
+    public boolean test(ByteBuf payload) {
+        return testEventType(payload) && testOrigin(payload);
+    }
+
+    private static boolean isEmpty(Collection<?> collection) {
+        return collection == null || collection.isEmpty();
+    }
+
+    private static boolean matches(ByteBuf payload, int position, int length, byte[] origin) {
+        if (length != origin.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (payload.getByte(position + i) != origin[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean[] toEventTypes(Collection<EventType> eventTypes) {
+        if (isEmpty(eventTypes)) {
+            return null;
+        }
+
+        int[] encoded = eventTypes.stream()
+            .mapToInt(EnvelopeScanner::toValue)
+            .filter(value -> value != EnvelopeScanner.NOT_FOUND)
+            .toArray();
+
+        boolean[] values = new boolean[IntStream.of(encoded).max().orElse(0) + 1];
+        IntStream.of(encoded).forEach(value -> values[value] = true);
+
+        return values;
+    }
+
+    private static byte[][] toOrigins(Collection<String> origins) {
+        if (isEmpty(origins)) {
+            return null;
+        }
+
+        return origins.stream()
+            .map(origin -> origin.getBytes(StandardCharsets.UTF_8))
+            .toArray(byte[][]::new);
+    }
+
+    private boolean testEventType(ByteBuf payload) {
+        if (this.eventTypes == null) {
+            return true;
+        }
+
+        int eventType = EnvelopeScanner.findEventType(payload);
+        return eventType >= 0 && eventType < this.eventTypes.length && this.eventTypes[eventType];
+    }
+
+    private boolean testOrigin(ByteBuf payload) {
+        if (this.origins == null) {
+            return true;
+        }
+
+        long origin = EnvelopeScanner.findOrigin(payload);
+        if (origin == EnvelopeScanner.NOT_FOUND) {
+            return false;
+        }
+
+        int position = (int) (origin >>> 32);
+        int length = (int) origin;
+
+        for (byte[] candidate : this.origins) {
+            if (matches(payload, position, length, candidate)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
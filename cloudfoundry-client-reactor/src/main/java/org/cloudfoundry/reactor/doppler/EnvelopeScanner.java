@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import org.cloudfoundry.doppler.EventType;
+
+import java.util.stream.Stream;
+
+/**
+ * Utilities for reading the origin and event type of an encoded envelope by scanning its protobuf tags, without decoding it
+ */
+final class EnvelopeScanner {
+
+    static final int NOT_FOUND = -1;
+
+    private static final int EVENT_TYPE = 2;
+
+    private static final EventType[] EVENT_TYPES = eventTypes();
+
+    private static final int ORIGIN = 1;
+
+    private static final int WIRE_TYPE_FIXED32 = 5;
+
+    private static final int WIRE_TYPE_FIXED64 = 1;
+
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private static final int WIRE_TYPE_VARINT = 0;
+
+    private EnvelopeScanner() {
+    }
+
+    /**
+     * Finds the encoded event type of an envelope
+     *
+     * @param payload the encoded envelope.  The reader index is not changed.
+     * @return the encoded event type, or {@link #NOT_FOUND}
+     */
+    static int findEventType(ByteBuf payload) {
+        return (int) find(payload, EVENT_TYPE);
+    }
+
+    /**
+     * Finds the origin of an envelope
+     *
+     * @param payload the encoded envelope.  The reader index is not changed.
+     * @return the index of the UTF-8 encoded origin in the upper 32 bits and its length in the lower 32 bits, or {@link #NOT_FOUND}
+     */
+    static long findOrigin(ByteBuf payload) {
+        return find(payload, ORIGIN);
+    }
+
+    /**
+     * Converts an encoded event type
+     *
+     * @param value the encoded event type, or {@link #NOT_FOUND}
+     * @return the event type, or {@code null} if it is not known to this client
+     */
+    static EventType toEventType(int value) {
+        return value >= 0 && value < EVENT_TYPES.length ? EVENT_TYPES[value] : null;
+    }
+
+    /**
+     * Converts an event type to its encoded value
+     *
+     * @param eventType the event type
+     * @return the encoded event type, or {@link #NOT_FOUND} if it has no encoded value
+     */
+    static int toValue(EventType eventType) {
+        for (int value = 0; value < EVENT_TYPES.length; value++) {
+            if (EVENT_TYPES[value] == eventType) {
+                return value;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private static EventType[] eventTypes() {
+        org.cloudfoundry.dropsonde.events.Envelope.EventType[] dropsondes = org.cloudfoundry.dropsonde.events.Envelope.EventType.values();
+        EventType[] eventTypes = new EventType[Stream.of(dropsondes).mapToInt(org.cloudfoundry.dropsonde.events.Envelope.EventType::getValue).max().orElse(-1) + 1];
+
+        for (org.cloudfoundry.dropsonde.events.Envelope.EventType dropsonde : dropsondes) {
+            try {
+                eventTypes[dropsonde.getValue()] = EventType.from(dropsonde);
+            } catch (IllegalArgumentException e) {
+                // not an event type of this client
+            }
+        }
+
+        return eventTypes;
+    }
+
+    private static long find(ByteBuf payload, int target) {
+        int position = payload.readerIndex();
+        int limit = payload.writerIndex();
+
+        while (position < limit) {
+            long tag = readVarint(payload, position);
+            position = skipVarint(payload, position);
+
+            int field = (int) (tag >>> 3);
+            int wireType = (int) (tag & 0x7);
+
+            switch (wireType) {
+                case WIRE_TYPE_VARINT:
+                    long value = readVarint(payload, position);
+                    position = skipVarint(payload, position);
+
+                    if (field == target) {
+                        return value;
+                    }
+                    break;
+                case WIRE_TYPE_FIXED64:
+                    position += 8;
+                    break;
+                case WIRE_TYPE_LENGTH_DELIMITED:
+                    int length = (int) readVarint(payload, position);
+                    position = skipVarint(payload, position);
+
+                    if (field == target) {
+                        return ((long) position << 32) | length;
+                    }
+
+                    position += length;
+                    break;
+                case WIRE_TYPE_FIXED32:
+                    position += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unsupported wire type: %d", wireType));
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private static long readVarint(ByteBuf payload, int position) {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = payload.getByte(position++);
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int skipVarint(ByteBuf payload, int position) {
+        while ((payload.getByte(position++) & 0x80) != 0) {
+            // continuation bit set
+        }
+
+        return position;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A lightweight view of an encoded {@link Envelope}.  The origin and event type are read from the encoded envelope without decoding it and the full {@link Envelope} is only decoded when
+ * {@link #getEnvelope()} is first called, so consumers that filter on origin or event type never build the object graph of envelopes they discard.
+ */
+public final class EnvelopeView {
+
+    private final byte[] payload;
+
+    private volatile Envelope envelope;
+
+    private volatile EventType eventType;
+
+    private volatile String origin;
+
+    EnvelopeView(ByteBuf byteBuf) {
+        this.payload = ByteBufUtil.getBytes(byteBuf);
+    }
+
+    /**
+     * Returns the decoded envelope, decoding it on first call
+     */
+    public Envelope getEnvelope() {
+        Envelope envelope = this.envelope;
+
+        if (envelope == null) {
+            try {
+                envelope = Envelope.from(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(this.payload));
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+
+            this.envelope = envelope;
+        }
+
+        return envelope;
+    }
+
+    /**
+     * Returns the type of the wrapped event, or {@code null} if it is not known to this client
+     */
+    public EventType getEventType() {
+        if (this.eventType == null) {
+            scan();
+        }
+
+        return this.eventType;
+    }
+
+    /**
+     * Returns the origin of the event
+     */
+    public String getOrigin() {
+        if (this.origin == null) {
+            scan();
+        }
+
+        return this.origin;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EnvelopeView{origin=%s, eventType=%s}", getOrigin(), getEventType());
+    }
+
+    private void scan() {
+        ByteBuf payload = Unpooled.wrappedBuffer(this.payload);
+
+        if (this.eventType == null) {
+            int eventType = EnvelopeScanner.findEventType(payload);
+            if (eventType != EnvelopeScanner.NOT_FOUND) {
+                this.eventType = EnvelopeScanner.toEventType(eventType);
+            }
+        }
+
+        if (this.origin == null) {
+            long origin = EnvelopeScanner.findOrigin(payload);
+            if (origin != EnvelopeScanner.NOT_FOUND) {
+                this.origin = new String(this.payload, (int) (origin >>> 32), (int) origin, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.OverflowStrategy;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Decouples a firehose from a slow consumer.  The firehose is requested without bound so that the websocket is always read, and envelopes the consumer has not yet requested are buffered
+ * according to an {@link OverflowStrategy}.  Discarded envelopes are counted in an {@link OverflowMetrics}.
+ */
+final class Overflow {
+
+    private Overflow() {
+    }
+
+    /**
+     * Returns the identity of an envelope for {@link OverflowStrategy#LATEST_PER_KEY}.  Metrics are identified by their source and name, every other envelope is unique.
+     *
+     * @param envelope the envelope
+     * @return the identity of the envelope
+     */
+    static Object key(Envelope envelope) {
+        switch (envelope.getEventType()) {
+            case CONTAINER_METRIC:
+                return Arrays.asList(envelope.getEventType(), envelope.getOrigin(), envelope.getDeployment(), envelope.getJob(), envelope.getIndex(), envelope.getIp(),
+                    envelope.getContainerMetric().getApplicationId(), envelope.getContainerMetric().getInstanceIndex());
+            case COUNTER_EVENT:
+                return Arrays.asList(envelope.getEventType(), envelope.getOrigin(), envelope.getDeployment(), envelope.getJob(), envelope.getIndex(), envelope.getIp(),
+                    envelope.getCounterEvent().getName());
+            case VALUE_METRIC:
+                return Arrays.asList(envelope.getEventType(), envelope.getOrigin(), envelope.getDeployment(), envelope.getJob(), envelope.getIndex(), envelope.getIp(),
+                    envelope.getValueMetric().getName());
+            default:
+                return new Object();
+        }
+    }
+
+    /**
+     * Applies an overflow strategy to a {@link Flux}
+     *
+     * @param strategy   the overflow strategy
+     * @param bufferSize the maximum number of buffered items
+     * @param eventType  a function that returns the event type of an item
+     * @param key        a function that returns the identity of an item for {@link OverflowStrategy#LATEST_PER_KEY}
+     * @param metrics    the metrics to count discarded items in
+     * @param <T>        the type of the items
+     * @return a function to transform a {@link Flux} with
+     */
+    static <T> Function<Flux<T>, Publisher<T>> overflow(OverflowStrategy strategy, int bufferSize, Function<T, EventType> eventType, Function<T, Object> key, OverflowMetrics metrics) {
+        return source -> Flux.from(subscriber -> source.subscribe(new OverflowSubscriber<>(subscriber, strategy, bufferSize, eventType, key, metrics)));
+    }
+
+    private static final class OverflowSubscriber<T> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super T> actual;
+
+        private final int bufferSize;
+
+        private final Function<T, EventType> eventType;
+
+        private final Function<T, Object> key;
+
+        private final Map<Object, T> latest = new LinkedHashMap<>();
+
+        private final OverflowMetrics metrics;
+
+        private final Queue<T> queue = new ArrayDeque<>();
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final OverflowStrategy strategy;
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile Throwable badRequest;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean done;
+
+        private Throwable error;
+
+        private Subscription upstream;
+
+        private OverflowSubscriber(Subscriber<? super T> actual, OverflowStrategy strategy, int bufferSize, Function<T, EventType> eventType, Function<T, Object> key, OverflowMetrics metrics) {
+            this.actual = actual;
+            this.bufferSize = bufferSize;
+            this.eventType = eventType;
+            this.key = key;
+            this.metrics = metrics;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled) {
+                return;
+            }
+
+            this.cancelled = true;
+            this.upstream.cancel();
+
+            if (this.wip.getAndIncrement() == 0) {
+                clear();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (this.done) {
+                return;
+            }
+
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (this.done) {
+                return;
+            }
+
+            this.error = t;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (this.done || this.cancelled) {
+                return;
+            }
+
+            T dropped;
+            boolean overflowed = false;
+
+            synchronized (this) {
+                if (OverflowStrategy.LATEST_PER_KEY == this.strategy) {
+                    dropped = offerLatest(t);
+                } else if (this.queue.size() < this.bufferSize) {
+                    this.queue.offer(t);
+                    dropped = null;
+                } else if (OverflowStrategy.DROP_OLDEST == this.strategy) {
+                    dropped = this.queue.poll();
+                    this.queue.offer(t);
+                } else {
+                    dropped = t;
+                    overflowed = OverflowStrategy.BUFFER == this.strategy;
+                }
+            }
+
+            if (dropped != null) {
+                this.metrics.onDrop(this.eventType.apply(dropped));
+            }
+
+            if (overflowed) {
+                this.upstream.cancel();
+                onError(Exceptions.failWithOverflow());
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            this.actual.onSubscribe(this);
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.upstream.cancel();
+                this.badRequest = new IllegalArgumentException(String.format("Request must be positive: %d", n));
+                drain();
+                return;
+            }
+
+            long current;
+            long next;
+            do {
+                current = this.requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!this.requested.compareAndSet(current, next));
+
+            drain();
+        }
+
+        private synchronized void clear() {
+            this.latest.clear();
+            this.queue.clear();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            for (; ; ) {
+                long requested = this.requested.get();
+                long emitted = 0;
+
+                while (emitted != requested) {
+                    if (isStopped()) {
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    T t = poll();
+
+                    if (t == null) {
+                        if (done) {
+                            terminate();
+                            return;
+                        }
+
+                        break;
+                    }
+
+                    this.actual.onNext(t);
+                    emitted++;
+                }
+
+                if (emitted == requested) {
+                    if (isStopped()) {
+                        return;
+                    }
+
+                    if (this.done && isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean isEmpty() {
+            return this.latest.isEmpty() && this.queue.isEmpty();
+        }
+
+        private boolean isStopped() {
+            if (this.cancelled) {
+                clear();
+                return true;
+            }
+
+            Throwable badRequest = this.badRequest;
+            if (badRequest != null) {
+                clear();
+                this.actual.onError(badRequest);
+                return true;
+            }
+
+            return false;
+        }
+
+        private T offerLatest(T t) {
+            Object key = this.key.apply(t);
+            T previous = this.latest.put(key, t);
+
+            if (previous == null && this.latest.size() > this.bufferSize) {
+                this.latest.remove(key);
+                return t;
+            }
+
+            return previous;
+        }
+
+        private synchronized T poll() {
+            if (OverflowStrategy.LATEST_PER_KEY != this.strategy) {
+                return this.queue.poll();
+            }
+
+            Iterator<T> values = this.latest.values().iterator();
+            if (!values.hasNext()) {
+                return null;
+            }
+
+            T t = values.next();
+            values.remove();
+            return t;
+        }
+
+        private void terminate() {
+            Throwable error = this.error;
+
+            if (error != null) {
+                this.actual.onError(error);
+            } else {
+                this.actual.onComplete();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.EventType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counters of the envelopes a firehose subscription has discarded because its consumer fell behind
+ */
+public final class OverflowMetrics {
+
+    private final Map<EventType, LongAdder> dropped = new EnumMap<>(EventType.class);
+
+    OverflowMetrics() {
+        Arrays.stream(EventType.values()).forEach(eventType -> this.dropped.put(eventType, new LongAdder()));
+    }
+
+    /**
+     * Returns the total number of envelopes discarded
+     */
+    public long getDropped() {
+        return this.dropped.values().stream()
+            .mapToLong(LongAdder::sum)
+            .sum();
+    }
+
+    /**
+     * Returns the number of envelopes of an event type discarded
+     *
+     * @param eventType the event type
+     * @return the number of envelopes discarded
+     */
+    public long getDropped(EventType eventType) {
+        return this.dropped.get(eventType).sum();
+    }
+
+    @Override
+    public String toString() {
+        return this.dropped.entrySet().stream()
+            .map(entry -> String.format("%s=%d", entry.getKey(), entry.getValue().sum()))
+            .collect(Collectors.joining(", ", "OverflowMetrics{", "}"));
+    }
+
+    void onDrop(EventType eventType) {
+        this.dropped.get(eventType).increment();
+    }
+
+}
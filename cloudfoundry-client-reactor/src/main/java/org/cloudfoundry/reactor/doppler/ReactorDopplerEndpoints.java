@@ -16,8 +16,11 @@
 
 package org.cloudfoundry.reactor.doppler;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import org.cloudfoundry.doppler.ContainerMetricsRequest;
 import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.FirehoseRequest;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
@@ -30,11 +33,30 @@ import reactor.core.publisher.Mono;
 import reactor.ipc.netty.ByteBufFlux;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.function.Function;
 
 final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
 
+    private static final int DEFAULT_BUFFER_SIZE = 10_000;
+
+    private final Optional<ReconnectPolicy> reconnectPolicy;
+
+    private final Optional<SpillPolicy> spillPolicy;
+
+    private final StreamMetrics streamMetrics;
+
     ReactorDopplerEndpoints(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
+        this(connectionContext, root, tokenProvider, Optional.empty(), Optional.empty(), new StreamMetrics());
+    }
+
+    ReactorDopplerEndpoints(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider, Optional<ReconnectPolicy> reconnectPolicy, Optional<SpillPolicy> spillPolicy,
+                            StreamMetrics streamMetrics) {
         super(connectionContext, root, tokenProvider);
+        this.reconnectPolicy = reconnectPolicy;
+        this.spillPolicy = spillPolicy;
+        this.streamMetrics = streamMetrics;
     }
 
     Flux<Envelope> containerMetrics(ContainerMetricsRequest request) {
@@ -46,14 +68,15 @@ final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
                 .takeWhile(t -> MultipartDecoderChannelHandler.DELIMITER != t)
                 .as(ByteBufFlux::fromInbound)
                 .aggregate()
-                .asByteArray(), Integer.MAX_VALUE)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+                .map(ReactorDopplerEndpoints::toEnvelope), Integer.MAX_VALUE);
     }
 
     Flux<Envelope> firehose(FirehoseRequest request) {
-        return ws(builder -> builder.pathSegment("firehose", request.getSubscriptionId()))
-            .flatMap(response -> response.receiveWebsocket().aggregateFrames().receive().asByteArray())
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        return firehose(request, ReactorDopplerEndpoints::toEnvelope, Envelope::getEventType, Overflow::key);
+    }
+
+    Flux<EnvelopeView> firehoseViews(FirehoseRequest request) {
+        return firehose(request, EnvelopeView::new, EnvelopeView::getEventType, view -> Overflow.key(view.getEnvelope()));
     }
 
     Flux<Envelope> recentLogs(RecentLogsRequest request) {
@@ -65,23 +88,88 @@ final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
                 .takeWhile(t -> MultipartDecoderChannelHandler.DELIMITER != t)
                 .as(ByteBufFlux::fromInbound)
                 .aggregate()
-                .asByteArray(), Integer.MAX_VALUE)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+                .map(ReactorDopplerEndpoints::toEnvelope), Integer.MAX_VALUE);
     }
 
     Flux<Envelope> stream(StreamRequest request) {
-        return ws(builder -> builder.pathSegment("apps", request.getApplicationId(), "stream"))
-            .flatMap(response -> response.receiveWebsocket().aggregateFrames().receive().asByteArray())
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        return stream(request, ReactorDopplerEndpoints::toEnvelope);
     }
 
-    private static Envelope toEnvelope(byte[] bytes) {
-        try {
-            return Envelope.from(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(bytes));
+    Flux<EnvelopeView> streamViews(StreamRequest request) {
+        return stream(request, EnvelopeView::new);
+    }
+
+    static Envelope toEnvelope(ByteBuf byteBuf) {
+        try (InputStream in = new ByteBufInputStream(byteBuf.duplicate())) {
+            return Envelope.from(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(in));
         } catch (IOException e) {
-            e.printStackTrace();
             throw Exceptions.propagate(e);
         }
     }
 
+    private static Flux<ByteBuf> filter(Flux<ByteBuf> payloads, Optional<EnvelopeFilter> filter) {
+        return filter
+            .map(payloads::filter)
+            .orElse(payloads);
+    }
+
+    private <T> Flux<T> firehose(FirehoseRequest request, Function<ByteBuf, T> decoder, Function<T, EventType> eventType, Function<T, Object> key) {
+        if (this.spillPolicy.isPresent()) {
+            if (request.getOverflowStrategy() != null || request.getBufferSize() != null) {
+                throw new IllegalStateException("An overflow strategy or buffer size cannot be combined with a spill policy");
+            }
+
+            return withOverflowMetrics(request, metrics -> SpillJournal.spill(this.spillPolicy.get(), journal -> firehoseConnections(request, journal::append), decoder,
+                payload -> onDrop(metrics, payload)));
+        }
+
+        Flux<T> envelopes = firehoseConnections(request, decoder);
+
+        if (request.getOverflowStrategy() == null) {
+            return envelopes;
+        }
+
+        int bufferSize = Optional.ofNullable(request.getBufferSize()).orElse(DEFAULT_BUFFER_SIZE);
+
+        return withOverflowMetrics(request, metrics -> envelopes.transform(Overflow.overflow(request.getOverflowStrategy(), bufferSize, eventType, key, metrics)));
+    }
+
+    private Flux<ByteBuf> firehoseConnection(FirehoseRequest request) {
+        Optional<EnvelopeFilter> filter = EnvelopeFilter.of(request.getEventTypes(), request.getOrigins());
+
+        return ws(builder -> builder.pathSegment("firehose", request.getSubscriptionId()))
+            .flatMap(response -> filter(response.receiveWebsocket().aggregateFrames().receive(), filter));
+    }
+
+    private <T> Flux<T> firehoseConnections(FirehoseRequest request, Function<ByteBuf, T> decoder) {
+        return Reconnection.connections(String.format("firehose/%s", request.getSubscriptionId()), Optional.ofNullable(request.getConnections()).orElse(1), () -> firehoseConnection(request), decoder,
+            this.reconnectPolicy, this.streamMetrics);
+    }
+
+    private static void onDrop(OverflowMetrics metrics, ByteBuf payload) {
+        Optional.ofNullable(EnvelopeScanner.toEventType(EnvelopeScanner.findEventType(payload)))
+            .ifPresent(metrics::onDrop);
+    }
+
+    private <T> Flux<T> stream(StreamRequest request, Function<ByteBuf, T> decoder) {
+        return Reconnection.connection(String.format("stream/%s", request.getApplicationId()), () -> streamConnection(request), decoder, this.reconnectPolicy, this.streamMetrics);
+    }
+
+    private Flux<ByteBuf> streamConnection(StreamRequest request) {
+        Optional<EnvelopeFilter> filter = EnvelopeFilter.of(request.getEventTypes(), request.getOrigins());
+
+        return ws(builder -> builder.pathSegment("apps", request.getApplicationId(), "stream"))
+            .flatMap(response -> filter(response.receiveWebsocket().aggregateFrames().receive(), filter));
+    }
+
+    private <T> Flux<T> withOverflowMetrics(FirehoseRequest request, Function<OverflowMetrics, Flux<T>> envelopes) {
+        return Flux.defer(() -> {
+            OverflowMetrics metrics = this.streamMetrics.overflow(request.getSubscriptionId());
+
+            return envelopes.apply(metrics)
+                .doOnCancel(() -> this.streamMetrics.remove(metrics))
+                .doOnTerminate(() -> this.streamMetrics.remove(metrics));
+        });
+    }
+
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.AbstractCloudFoundryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Utilities for reopening websocket connections according to a {@link ReconnectPolicy}
+ */
+final class Reconnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.doppler");
+
+    private static final int MAXIMUM_DOUBLINGS = 30;
+
+    private Reconnection() {
+    }
+
+    /**
+     * Opens a connection and decodes its payloads.  If a policy is given, the connection is reopened according to it, otherwise the returned {@link Flux} fails or completes with the connection.
+     *
+     * @param name          the name of the connection, used for logging and metrics
+     * @param connection    a {@link Supplier} that opens the connection each time it is called
+     * @param decoder       the decoder of the payloads received on the connection
+     * @param policy        the reconnection policy, if any
+     * @param streamMetrics the metrics to record the connection's activity in
+     * @param <S>           the type of the payloads received on the connection
+     * @param <T>           the type of the decoded payloads
+     * @return a {@link Flux} of the decoded payloads
+     */
+    static <S, T> Flux<T> connection(String name, Supplier<Flux<S>> connection, Function<S, T> decoder, Optional<ReconnectPolicy> policy, StreamMetrics streamMetrics) {
+        return policy
+            .map(p -> reconnecting(name, connection, p, streamMetrics))
+            .orElseGet(() -> Flux.defer(connection))
+            .map(decoder);
+    }
+
+    /**
+     * Opens a number of connections, named {@code name/0} to {@code name/(connections - 1)}, and merges their decoded payloads.  Each connection is treated exactly as a single one opened with
+     * {@link #connection(String, Supplier, Function, Optional, StreamMetrics)}: if a policy is given, each is reopened independently while the others keep flowing, otherwise the failure of any
+     * connection fails the merged {@link Flux}.
+     *
+     * @param name          the prefix of the names of the connections
+     * @param connections   the number of connections to open
+     * @param connection    a {@link Supplier} that opens a connection each time it is called
+     * @param decoder       the decoder of the payloads received on the connections
+     * @param policy        the reconnection policy, if any
+     * @param streamMetrics the metrics to record the connections' activity in
+     * @param <S>           the type of the payloads received on the connections
+     * @param <T>           the type of the decoded payloads
+     * @return a {@link Flux} of the decoded payloads of all connections
+     */
+    static <S, T> Flux<T> connections(String name, int connections, Supplier<Flux<S>> connection, Function<S, T> decoder, Optional<ReconnectPolicy> policy, StreamMetrics streamMetrics) {
+        if (connections == 1) {
+            return connection(String.format("%s/0", name), connection, decoder, policy, streamMetrics);
+        }
+
+        return Flux.range(0, connections)
+            .flatMap(index -> connection(String.format("%s/%d", name, index), connection, decoder, policy, streamMetrics), connections);
+    }
+
+    /**
+     * Wraps a connection so that it is reopened whenever it completes, is idle for longer than the policy's idle timeout, or fails with a transient error.  The delay before reopening is reset once a
+     * payload is received on the reopened connection.  Errors that reopening cannot fix, such as a rejected token or an unknown subscription, are propagated.  Each subscription records its activity
+     * in its own {@link ConnectionMetrics}, which are removed from the stream metrics when the subscription is cancelled or terminates.
+     *
+     * @param name          the name of the connection, used for logging and metrics
+     * @param connection    a {@link Supplier} that opens the connection each time it is called
+     * @param policy        the reconnection policy
+     * @param streamMetrics the metrics to record the connection's activity in
+     * @param <T>           the type of the elements received on the connection
+     * @return a {@link Flux} that only fails with an error that is not transient
+     */
+    static <T> Flux<T> reconnecting(String name, Supplier<Flux<T>> connection, ReconnectPolicy policy, StreamMetrics streamMetrics) {
+        return Flux.defer(() -> {
+            AtomicInteger attempt = new AtomicInteger();
+            ConnectionMetrics metrics = streamMetrics.connection(name);
+
+            return Flux.defer(() -> withIdleTimeout(connection.get(), policy))
+                .doOnNext(t -> {
+                    metrics.onMessage();
+
+                    int attempts = attempt.get();
+                    if (attempts != 0) {
+                        LOGGER.debug("Connection {} restored after {} {}", name, attempts, attempts == 1 ? "attempt" : "attempts");
+                        attempt.set(0);
+                    }
+                })
+                .doOnError(t -> {
+                    LOGGER.debug("Connection {} failed", name, t);
+                    metrics.onDisconnect();
+                })
+                .doOnComplete(() -> {
+                    LOGGER.debug("Connection {} closed", name);
+                    metrics.onDisconnect();
+                })
+                .retryWhen(errors -> delays(errors.flatMap(t -> isTransient(t) ? Mono.just(t) : Mono.<Throwable>error(t)), attempt, policy, metrics))
+                .repeatWhen(completions -> delays(completions, attempt, policy, metrics))
+                .doOnCancel(() -> streamMetrics.remove(metrics))
+                .doOnTerminate(() -> streamMetrics.remove(metrics));
+        });
+    }
+
+    static Duration getDelay(ReconnectPolicy policy, int attempt) {
+        Duration candidate = policy.getMinimumDelay().multipliedBy(1L << Math.min(attempt, MAXIMUM_DOUBLINGS));
+        long base = (candidate.compareTo(policy.getMaximumDelay()) <= 0 ? candidate : policy.getMaximumDelay()).toNanos();
+        double jitter = policy.getJitter();
+
+        return Duration.ofNanos((long) (base * (1 - jitter) + ThreadLocalRandom.current().nextDouble() * base * jitter));
+    }
+
+    private static <S> Flux<Long> delays(Flux<S> signals, AtomicInteger attempt, ReconnectPolicy policy, ConnectionMetrics metrics) {
+        return signals
+            .flatMap(signal -> {
+                metrics.onReconnect();
+                return Mono.delay(getDelay(policy, attempt.getAndIncrement()));
+            }, 1);
+    }
+
+    private static boolean isTransient(Throwable t) {
+        if (t instanceof AbstractCloudFoundryException) {
+            int statusCode = ((AbstractCloudFoundryException) t).getStatusCode();
+            return statusCode < 400 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+
+        return true;
+    }
+
+    private static <T> Flux<T> withIdleTimeout(Flux<T> connection, ReconnectPolicy policy) {
+        return policy.getIdleTimeout()
+            .map(timeout -> connection.timeout(timeout))
+            .orElse(connection);
+    }
+
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An append-only journal of encoded envelopes, stored in segment files.  Envelopes are appended by any number of writers and read by a single reader.  Each record is a length followed by the
+ * encoded envelope, and each segment ends with an end-of-segment marker once the writer rolls to the next segment.  Segments are written and read through their {@link FileChannel}, so no mapping
+ * outlives a segment, and are deleted as the reader moves past them.  Once the journal holds its maximum size, further envelopes either fail the writer or are dropped.
+ */
+final class SpillJournal {
+
+    private static final int END_OF_SEGMENT = -1;
+
+    private static final int HEADER_SIZE = 4;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.doppler");
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+
+    private final boolean dropWhenFull;
+
+    private final Consumer<ByteBuf> dropped;
+
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+    private final long maximumSize;
+
+    private final int segmentSize;
+
+    private final Queue<Segment> segments = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong size = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private boolean closed;
+
+    private long read;
+
+    private ByteBuffer readBuffer = emptyBuffer(READ_BUFFER_SIZE);
+
+    private long readPosition;
+
+    private Segment readSegment;
+
+    private long sequence;
+
+    private Segment writeSegment;
+
+    SpillJournal(Path directory, int segmentSize, long maximumSize, boolean dropWhenFull, Consumer<ByteBuf> dropped) throws IOException {
+        this.directory = Files.createTempDirectory(Files.createDirectories(directory), "firehose-");
+        this.dropWhenFull = dropWhenFull;
+        this.dropped = dropped;
+        this.maximumSize = maximumSize;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Spills the envelopes written by a {@link Flux} to a journal and replays them to the subscriber as it requests them
+     *
+     * @param policy  the spill policy
+     * @param writer  a function that returns a {@link Flux} that appends envelopes to the journal, emitting once for each envelope
+     * @param decoder the decoder of replayed envelopes
+     * @param dropped a callback for each envelope dropped because the journal is full
+     * @param <T>     the type of the decoded envelopes
+     * @return the replayed envelopes
+     */
+    static <T> Flux<T> spill(SpillPolicy policy, Function<SpillJournal, Flux<?>> writer, Function<ByteBuf, T> decoder, Consumer<ByteBuf> dropped) {
+        return Flux.defer(() -> {
+            SpillJournal journal;
+
+            try {
+                journal = new SpillJournal(policy.getDirectory(), policy.getSegmentSize(), policy.getMaximumSize().orElse(Long.MAX_VALUE), policy.getDropWhenFull(), dropped);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+
+            return Flux.<T>from(subscriber -> new Replay<>(subscriber, journal, decoder).start(writer.apply(journal)));
+        });
+    }
+
+    /**
+     * Appends an encoded envelope.  If the journal is full, the envelope is dropped or an overflow error is thrown.
+     *
+     * @param payload the encoded envelope.  The reader index is not changed.
+     * @return the number of envelopes appended to the journal
+     */
+    synchronized long append(ByteBuf payload) {
+        if (this.closed) {
+            return this.written.get();
+        }
+
+        int length = payload.readableBytes();
+
+        if (this.size.get() + length + 2 * HEADER_SIZE > this.maximumSize) {
+            if (!this.dropWhenFull) {
+                throw Exceptions.failWithOverflow();
+            }
+
+            this.dropped.accept(payload);
+            return this.written.get();
+        }
+
+        if (this.writeSegment == null || this.writeSegment.size + length + 2 * HEADER_SIZE > this.segmentSize) {
+            roll();
+        }
+
+        write(header(length), payload.nioBuffer());
+
+        return this.written.incrementAndGet();
+    }
+
+    synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        if (this.readSegment != null) {
+            this.readSegment.delete();
+        }
+
+        this.segments.forEach(Segment::delete);
+        this.segments.clear();
+
+        try {
+            Files.deleteIfExists(this.directory);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete spill journal {}", this.directory, e);
+        }
+    }
+
+    Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Returns whether the reader has read every appended envelope
+     */
+    boolean isEmpty() {
+        return this.read == this.written.get();
+    }
+
+    /**
+     * Reads the next envelope.  Must only be called by a single reader at a time.
+     *
+     * @return the next envelope, or {@code null} if every appended envelope has been read.  The envelope is only valid until the next call.
+     */
+    ByteBuf poll() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        for (; ; ) {
+            if (this.readSegment == null) {
+                this.readSegment = this.segments.poll();
+                this.readBuffer = emptyBuffer(this.readBuffer.capacity());
+                this.readPosition = 0;
+            }
+
+            int length = fill(HEADER_SIZE).getInt();
+
+            if (length == END_OF_SEGMENT) {
+                this.size.addAndGet(-this.readSegment.size);
+                this.readSegment.delete();
+                this.readSegment = null;
+                continue;
+            }
+
+            ByteBuffer reader = fill(length);
+            ByteBuffer payload = reader.slice();
+            payload.limit(length);
+            reader.position(reader.position() + length);
+
+            this.read++;
+            return Unpooled.wrappedBuffer(payload);
+        }
+    }
+
+    private static ByteBuffer emptyBuffer(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        buffer.limit(0);
+        return buffer;
+    }
+
+    private ByteBuffer fill(int length) {
+        ByteBuffer buffer = this.readBuffer;
+
+        if (buffer.remaining() >= length) {
+            return buffer;
+        }
+
+        if (buffer.capacity() < length) {
+            this.readBuffer = ByteBuffer.allocate(length).put(buffer);
+            buffer = this.readBuffer;
+        } else {
+            buffer.compact();
+        }
+
+        try {
+            while (buffer.position() < length) {
+                int count = this.readSegment.channel.read(buffer, this.readPosition);
+
+                if (count < 0) {
+                    throw new IllegalStateException(String.format("Spill journal segment %s is truncated", this.readSegment.path));
+                }
+
+                this.readPosition += count;
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private ByteBuffer header(int value) {
+        this.header.clear();
+        this.header.putInt(value);
+        this.header.flip();
+        return this.header;
+    }
+
+    private void roll() {
+        if (this.writeSegment != null) {
+            write(header(END_OF_SEGMENT));
+        }
+
+        Path path = this.directory.resolve(String.format("%020d.segment", this.sequence++));
+
+        try {
+            this.writeSegment = new Segment(path);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        this.segments.add(this.writeSegment);
+    }
+
+    private void write(ByteBuffer... buffers) {
+        long count = 0;
+        for (ByteBuffer buffer : buffers) {
+            count += buffer.remaining();
+        }
+
+        try {
+            for (long remaining = count; remaining > 0; ) {
+                remaining -= this.writeSegment.channel.write(buffers);
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        this.writeSegment.size += count;
+        this.size.addAndGet(count);
+    }
+
+    private static final class Replay<T> implements Subscriber<Object>, Subscription {
+
+        private final Subscriber<? super T> actual;
+
+        private final Function<ByteBuf, T> decoder;
+
+        private final SpillJournal journal;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile Throwable badRequest;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean done;
+
+        private Throwable error;
+
+        private volatile Subscription upstream;
+
+        private Replay(Subscriber<? super T> actual, SpillJournal journal, Function<ByteBuf, T> decoder) {
+            this.actual = actual;
+            this.decoder = decoder;
+            this.journal = journal;
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled) {
+                return;
+            }
+
+            this.cancelled = true;
+
+            Subscription upstream = this.upstream;
+            if (upstream != null) {
+                upstream.cancel();
+            }
+
+            if (this.wip.getAndIncrement() == 0) {
+                this.journal.close();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(Object t) {
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+
+            if (this.cancelled) {
+                s.cancel();
+            } else {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                Subscription upstream = this.upstream;
+                if (upstream != null) {
+                    upstream.cancel();
+                }
+
+                this.badRequest = new IllegalArgumentException(String.format("Request must be positive: %d", n));
+                drain();
+                return;
+            }
+
+            long current;
+            long next;
+            do {
+                current = this.requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!this.requested.compareAndSet(current, next));
+
+            drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            for (; ; ) {
+                long requested = this.requested.get();
+                long emitted = 0;
+
+                while (emitted != requested) {
+                    if (isStopped()) {
+                        return;
+                    }
+
+                    boolean done = this.done;
+                    ByteBuf payload = this.journal.poll();
+
+                    if (payload == null) {
+                        if (done) {
+                            terminate();
+                            return;
+                        }
+
+                        break;
+                    }
+
+                    T t;
+                    try {
+                        t = this.decoder.apply(payload);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        this.journal.close();
+                        this.actual.onError(e);
+                        return;
+                    }
+
+                    this.actual.onNext(t);
+                    emitted++;
+                }
+
+                if (emitted == requested) {
+                    if (isStopped()) {
+                        return;
+                    }
+
+                    if (this.done && this.journal.isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isStopped() {
+            if (this.cancelled) {
+                this.journal.close();
+                return true;
+            }
+
+            Throwable badRequest = this.badRequest;
+            if (badRequest != null) {
+                this.journal.close();
+                this.actual.onError(badRequest);
+                return true;
+            }
+
+            return false;
+        }
+
+        private void start(Flux<?> writer) {
+            this.actual.onSubscribe(this);
+            writer.subscribe(this);
+        }
+
+        private void terminate() {
+            this.journal.close();
+
+            Throwable error = this.error;
+            if (error != null) {
+                this.actual.onError(error);
+            } else {
+                this.actual.onComplete();
+            }
+        }
+
+    }
+
+    private static final class Segment {
+
+        private final FileChannel channel;
+
+        private final Path path;
+
+        private long size;
+
+        private Segment(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.path = path;
+        }
+
+        private void delete() {
+            try {
+                this.channel.close();
+                Files.deleteIfExists(this.path);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete spill journal segment {}", this.path, e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link ConnectionMetrics} of the reconnecting firehose and stream connections of a {@link ReactorDopplerClient}, keyed by connection name, and the {@link OverflowMetrics} of its firehose
+ * subscriptions, keyed by subscription id.  Firehose connections are named {@code firehose/{subscriptionId}/{connection}} and stream connections {@code stream/{applicationId}}.  Metrics are added
+ * when a connection or subscription is subscribed to and removed when it is cancelled or terminates.  If a connection or subscription of the same name is already open, the later one is keyed
+ * {@code name#2}, {@code name#3} and so on.
+ */
+public final class StreamMetrics {
+
+    private final ConcurrentMap<String, ConnectionMetrics> connections = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, OverflowMetrics> overflows = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of a connection
+     *
+     * @param name the name of the connection
+     * @return the metrics, if the connection is open
+     */
+    public Optional<ConnectionMetrics> getConnection(String name) {
+        return Optional.ofNullable(this.connections.get(name));
+    }
+
+    /**
+     * Returns the metrics of all connections, keyed by connection name
+     */
+    public Map<String, ConnectionMetrics> getConnections() {
+        return Collections.unmodifiableMap(this.connections);
+    }
+
+    /**
+     * Returns the overflow metrics of a firehose subscription
+     *
+     * @param subscriptionId the subscription id
+     * @return the metrics, if the subscription is open with an overflow strategy or a spill policy
+     */
+    public Optional<OverflowMetrics> getOverflow(String subscriptionId) {
+        return Optional.ofNullable(this.overflows.get(subscriptionId));
+    }
+
+    /**
+     * Returns the overflow metrics of all firehose subscriptions, keyed by subscription id
+     */
+    public Map<String, OverflowMetrics> getOverflows() {
+        return Collections.unmodifiableMap(this.overflows);
+    }
+
+    ConnectionMetrics connection(String name) {
+        return add(this.connections, name, new ConnectionMetrics());
+    }
+
+    OverflowMetrics overflow(String subscriptionId) {
+        return add(this.overflows, subscriptionId, new OverflowMetrics());
+    }
+
+    void remove(ConnectionMetrics metrics) {
+        this.connections.values().remove(metrics);
+    }
+
+    void remove(OverflowMetrics metrics) {
+        this.overflows.values().remove(metrics);
+    }
+
+    private static <T> T add(ConcurrentMap<String, T> metrics, String name, T value) {
+        String key = name;
+
+        for (int i = 2; metrics.putIfAbsent(key, value) != null; i++) {
+            key = String.format("%s#%d", name, i);
+        }
+
+        return value;
+    }
+
+}
@@ -31,6 +31,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClient;
 
+import java.util.Optional;
+
 /**
  * The Reactor-based implementation of {@link DopplerClient}
  */
@@ -47,6 +49,17 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getDopplerEndpoints().firehose(request);
     }
 
+    /**
+     * Makes the <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Firehose</a> request, emitting a lightweight {@link EnvelopeView} of each
+     * envelope.  Envelopes are only decoded when {@link EnvelopeView#getEnvelope()} is called.
+     *
+     * @param request the Firehose request
+     * @return the events from the firehose
+     */
+    public Flux<EnvelopeView> firehoseViews(FirehoseRequest request) {
+        return getDopplerEndpoints().firehoseViews(request);
+    }
+
     @Override
     public Flux<Envelope> recentLogs(RecentLogsRequest request) {
         return getDopplerEndpoints().recentLogs(request);
@@ -57,12 +70,23 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getDopplerEndpoints().stream(request);
     }
 
+    /**
+     * Makes the <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Stream</a> request, emitting a lightweight {@link EnvelopeView} of each envelope.
+     * Envelopes are only decoded when {@link EnvelopeView#getEnvelope()} is called.
+     *
+     * @param request the Stream request
+     * @return the events from the stream
+     */
+    public Flux<EnvelopeView> streamViews(StreamRequest request) {
+        return getDopplerEndpoints().streamViews(request);
+    }
+
     @Nullable
     abstract ConnectionContext getConnectionContext();
 
     @Value.Derived
     ReactorDopplerEndpoints getDopplerEndpoints() {
-        return new ReactorDopplerEndpoints(getConnectionContext(), getRoot(), getTokenProvider());
+        return new ReactorDopplerEndpoints(getConnectionContext(), getRoot(), getTokenProvider(), getReconnectPolicy(), getSpillPolicy(), getStreamMetrics());
     }
 
     @Value.Default
@@ -75,11 +99,31 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getConnectionContext().getObjectMapper();
     }
 
+    /**
+     * The policy for reopening firehose and stream websockets.  If set, the firehose and stream reconnect on their own instead of completing or failing when their websocket is lost.  A firehose
+     * request with more than one connection reopens each of its websockets independently, while the others keep flowing.
+     */
+    abstract Optional<ReconnectPolicy> getReconnectPolicy();
+
     @Value.Default
     Mono<String> getRoot() {
         return getConnectionContext().getRoot("doppler_logging_endpoint");
     }
 
+    /**
+     * The journal that firehose envelopes are spilled to.  If set, each firehose subscription writes its envelopes to disk as they arrive and replays them as its consumer requests them, instead of
+     * slowing the websocket to the pace of the consumer.
+     */
+    abstract Optional<SpillPolicy> getSpillPolicy();
+
+    /**
+     * The metrics of reconnecting firehose and stream connections and of firehose subscriptions with an overflow strategy or a spill policy
+     */
+    @Value.Default
+    public StreamMetrics getStreamMetrics() {
+        return new StreamMetrics();
+    }
+
     abstract TokenProvider getTokenProvider();
 
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configuration of the reconnection of the firehose and stream websockets.  When a websocket fails, closes, or is idle for longer than the idle timeout, it is reopened after an exponentially
+ * increasing, jittered delay.  The delay is reset once an envelope is received on the new websocket.  Errors that reopening cannot fix, such as a client error response other than 408 or 429, or
+ * an envelope that cannot be decoded, are not retried and fail the firehose or stream.
+ */
+@Value.Immutable
+abstract class _ReconnectPolicy {
+
+    @Value.Check
+    void check() {
+        if (getJitter() < 0 || getJitter() > 1) {
+            throw new IllegalStateException("Cannot build ReconnectPolicy, jitter must be between 0 and 1");
+        }
+
+        if (getMinimumDelay().compareTo(getMaximumDelay()) > 0) {
+            throw new IllegalStateException("Cannot build ReconnectPolicy, minimumDelay must not be greater than maximumDelay");
+        }
+    }
+
+    /**
+     * How long a websocket may go without receiving an envelope before it is considered half-open and reopened.  Defaults to no timeout, as application streams may legitimately be quiet.
+     */
+    abstract Optional<Duration> getIdleTimeout();
+
+    /**
+     * The proportion of each delay that is randomized, between 0 and 1.  Defaults to 0.5.
+     */
+    @Value.Default
+    double getJitter() {
+        return 0.5;
+    }
+
+    /**
+     * The maximum delay before reconnecting.  Defaults to 30 seconds.
+     */
+    @Value.Default
+    Duration getMaximumDelay() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * The delay before the first reconnection attempt.  Defaults to 1 second.
+     */
+    @Value.Default
+    Duration getMinimumDelay() {
+        return Duration.ofSeconds(1);
+    }
+
+}
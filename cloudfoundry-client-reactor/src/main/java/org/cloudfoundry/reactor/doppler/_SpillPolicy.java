@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Configuration of the disk journal that firehose envelopes are spilled to.  Each firehose subscription writes the envelopes it receives to a journal of segment files as fast as they arrive and
+ * replays them to its consumer as the consumer requests them, so a stalled consumer neither grows the heap nor causes Doppler to disconnect it.  Segments are deleted once they have been replayed
+ * and the journal is deleted when the subscription ends.  When set, a firehose request with an overflow strategy or buffer size is rejected.
+ */
+@Value.Immutable
+abstract class _SpillPolicy {
+
+    private static final int MINIMUM_SEGMENT_SIZE = 64 * 1024;
+
+    @Value.Check
+    void check() {
+        if (getSegmentSize() < MINIMUM_SEGMENT_SIZE) {
+            throw new IllegalStateException(String.format("Cannot build SpillPolicy, segmentSize must be at least %d", MINIMUM_SEGMENT_SIZE));
+        }
+
+        if (getMaximumSize().isPresent() && getMaximumSize().get() < getSegmentSize()) {
+            throw new IllegalStateException("Cannot build SpillPolicy, maximumSize must be at least segmentSize");
+        }
+    }
+
+    /**
+     * The directory to create journals in.  Each firehose subscription creates its own temporary directory within it.
+     */
+    abstract Path getDirectory();
+
+    /**
+     * Whether envelopes that arrive when a journal is at its maximum size are dropped and counted in the overflow metrics of the subscription.  Otherwise the subscription fails with an overflow
+     * error.  Defaults to {@code false}.
+     */
+    @Value.Default
+    boolean getDropWhenFull() {
+        return false;
+    }
+
+    /**
+     * The maximum size in bytes of each journal, including segments that have been replayed but not yet deleted.  Defaults to no maximum.
+     */
+    abstract Optional<Long> getMaximumSize();
+
+    /**
+     * The size in bytes of each journal segment.  Segments are only deleted once all of their envelopes have been replayed.  Defaults to 64 MiB.
+     */
+    @Value.Default
+    int getSegmentSize() {
+        return 64 * 1024 * 1024;
+    }
+
+}
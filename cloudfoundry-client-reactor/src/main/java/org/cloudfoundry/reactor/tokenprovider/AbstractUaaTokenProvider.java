@@ -16,10 +16,16 @@
 
 package org.cloudfoundry.reactor.tokenprovider;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.util.AsciiString;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.util.ErrorPayloadMapper;
+import org.cloudfoundry.reactor.util.HttpExchangeRecorder;
 import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.NetworkLogging;
 import org.cloudfoundry.reactor.util.UserAgent;
@@ -28,15 +34,20 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
@@ -47,7 +58,8 @@ import static io.netty.handler.codec.http.HttpHeaderValues.APPLICATION_X_WWW_FOR
 import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED;
 
 /**
- * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.
+ * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.  Only a single token request is made at a time for
+ * each {@link ConnectionContext}, no matter how many requests are waiting for a token.
  */
 public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
@@ -61,10 +73,25 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     private static final String TOKEN_TYPE = "token_type";
 
-    private final ConcurrentMap<ConnectionContext, Mono<String>> accessTokens = new ConcurrentHashMap<>(1);
+    private final ConcurrentMap<ConnectionContext, AccessToken> accessTokens = new ConcurrentHashMap<>(1);
 
     private final ConcurrentMap<ConnectionContext, Mono<String>> refreshTokens = new ConcurrentHashMap<>(1);
 
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    private final ConcurrentMap<ConnectionContext, Disposable> renewals = new ConcurrentHashMap<>(1);
+
+    private volatile Duration lastRefreshLatency;
+
+    /**
+     * Whether access tokens are renewed on a background timer, {@link #getRefreshMargin()} before they expire, rather than when a token is next requested.  A failed background renewal is retried
+     * when a token is next requested.  Defaults to {@code false}.
+     */
+    @Value.Default
+    public Boolean getBackgroundRefresh() {
+        return false;
+    }
+
     /**
      * The client id.  Defaults to {@code cf}.
      */
@@ -81,14 +108,67 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return "";
     }
 
+    /**
+     * Returns how long the most recent successful token request took, if one has completed
+     */
+    public final Optional<Duration> getLastRefreshLatency() {
+        return Optional.ofNullable(this.lastRefreshLatency);
+    }
+
+    /**
+     * How long before its expiration an access token is renewed.  A token whose lifetime is shorter than twice the margin is instead renewed halfway through its lifetime.  Defaults to 30 seconds.
+     */
+    @Value.Default
+    public Duration getRefreshMargin() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Returns the number of token requests that have failed
+     */
+    public final long getRefreshFailures() {
+        return this.refreshFailures.get();
+    }
+
     @Override
     public final Mono<String> getToken(ConnectionContext connectionContext) {
-        return this.accessTokens.getOrDefault(connectionContext, Mono.empty());
+        return Mono.defer(() -> {
+            AccessToken accessToken = this.accessTokens.computeIfAbsent(connectionContext, this::newAccessToken);
+            Instant now = Instant.now();
+
+            if (accessToken.isFailed() || accessToken.isExpiredAt(now)) {
+                return renew(connectionContext, accessToken).value;
+            }
+
+            if (accessToken.isRefreshDueAt(now)) {
+                renewInBackground(connectionContext, accessToken);
+            }
+
+            return accessToken.value;
+        });
     }
 
     @Override
     public void invalidate(ConnectionContext connectionContext) {
-        this.accessTokens.put(connectionContext, token(connectionContext));
+        AccessToken accessToken = this.accessTokens.get(connectionContext);
+
+        if (accessToken == null) {
+            this.accessTokens.putIfAbsent(connectionContext, newAccessToken(connectionContext));
+        } else {
+            renew(connectionContext, accessToken);
+        }
+    }
+
+    /**
+     * Renews the access token only if {@code token} is still the current token, so that late failures of requests made with a token that has already been renewed do not renew it again
+     */
+    @Override
+    public void invalidate(ConnectionContext connectionContext, String token) {
+        AccessToken accessToken = this.accessTokens.get(connectionContext);
+
+        if (accessToken == null || token == null || token.equals(accessToken.token)) {
+            invalidate(connectionContext);
+        }
     }
 
     /**
@@ -104,6 +184,25 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .header(CONTENT_TYPE, APPLICATION_X_WWW_FORM_URLENCODED);
     }
 
+    private static Instant getExpiration(String token) {
+        try {
+            String jwt = token.substring(token.indexOf(' ') + 1);
+            String unsigned = jwt.substring(0, jwt.lastIndexOf('.') + 1);
+
+            return toInstant(Jwts.parser().parseClaimsJwt(unsigned).getBody());
+        } catch (ExpiredJwtException e) {
+            return toInstant(e.getClaims());
+        } catch (JwtException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            LOGGER.debug("Unable to determine access token expiration: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Instant toInstant(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null ? null : expiration.toInstant();
+    }
+
     private static HttpClientRequest disableFailOnError(HttpClientRequest request) {
         return request
             .failOnClientError(false)
@@ -138,6 +237,47 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             });
     }
 
+    private AccessToken newAccessToken(ConnectionContext connectionContext) {
+        return new AccessToken(connectionContext);
+    }
+
+    private void onRefreshed(ConnectionContext connectionContext, AccessToken accessToken, Duration latency) {
+        this.lastRefreshLatency = latency;
+
+        if (!getBackgroundRefresh() || accessToken.refreshAt == null) {
+            return;
+        }
+
+        Duration delay = Duration.between(Instant.now(), accessToken.refreshAt);
+        if (delay.isNegative() || delay.isZero()) {
+            return;
+        }
+
+        LOGGER.debug("Scheduling access token renewal in {}", delay);
+        Disposable previous = this.renewals.put(connectionContext, Mono.delay(delay)
+            .subscribe(l -> renewInBackground(connectionContext, accessToken)));
+
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    private Instant getRefreshAt(Instant expiration) {
+        if (expiration == null) {
+            return null;
+        }
+
+        Duration lifetime = Duration.between(Instant.now(), expiration);
+        if (lifetime.isNegative()) {
+            return expiration;
+        }
+
+        Duration margin = getRefreshMargin();
+        Duration maximumMargin = lifetime.dividedBy(2);
+
+        return expiration.minus(margin.compareTo(maximumMargin) > 0 ? maximumMargin : margin);
+    }
+
     private Mono<HttpClientResponse> primaryToken(ConnectionContext connectionContext) {
         return requestToken(connectionContext, this::tokenRequestTransformer);
     }
@@ -159,17 +299,31 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
                 .then());
     }
 
+    private AccessToken renew(ConnectionContext connectionContext, AccessToken accessToken) {
+        if (!accessToken.isResolved()) {
+            return accessToken;
+        }
+
+        AccessToken renewed = newAccessToken(connectionContext);
+        return this.accessTokens.replace(connectionContext, accessToken, renewed) ? renewed : this.accessTokens.get(connectionContext);
+    }
+
+    private void renewInBackground(ConnectionContext connectionContext, AccessToken accessToken) {
+        renew(connectionContext, accessToken).value
+            .subscribe(token -> {
+            }, t -> LOGGER.warn("Unable to renew access token: {}", t.getMessage()));
+    }
+
     private Mono<HttpClientResponse> requestToken(ConnectionContext connectionContext, Function<Mono<HttpClientRequest>, Mono<Void>> tokenRequestTransformer) {
         return connectionContext
             .getRoot(AUTHORIZATION_ENDPOINT)
             .map(AbstractUaaTokenProvider::getTokenUri)
-            .then(uri -> connectionContext.getHttpClient()
-                .post(uri, request -> Mono.just(request)
-                    .map(AbstractUaaTokenProvider::disableFailOnError)
-                    .map(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
-                    .map(AbstractUaaTokenProvider::addContentTypes)
-                    .transform(tokenRequestTransformer))
+            .then(uri -> HttpExchangeRecorder.request(connectionContext.getHttpClient(), connectionContext.getHttpExchangeListener(), HttpMethod.POST, uri, outbound -> outbound
+                .map(AbstractUaaTokenProvider::disableFailOnError)
+                .map(this::addAuthorization)
+                .map(UserAgent::addUserAgent)
+                .map(AbstractUaaTokenProvider::addContentTypes)
+                .transform(tokenRequestTransformer))
                 .doOnSubscribe(NetworkLogging.post(uri))
                 .transform(NetworkLogging.response(uri))
                 .transform(ErrorPayloadMapper.uaa(connectionContext.getObjectMapper())));
@@ -182,8 +336,62 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .otherwiseIfEmpty(primaryToken(connectionContext)
                 .doOnSubscribe(s -> LOGGER.debug("Negotiating using token provider")))
             .transform(ErrorPayloadMapper.fallback())
-            .transform(extractTokens(connectionContext))
-            .cache();
+            .transform(extractTokens(connectionContext));
+    }
+
+    private final class AccessToken {
+
+        private final Mono<String> value;
+
+        private volatile Instant expiration;
+
+        private volatile boolean failed;
+
+        private volatile Instant refreshAt;
+
+        private volatile long requested;
+
+        private volatile boolean resolved;
+
+        private volatile String token;
+
+        private AccessToken(ConnectionContext connectionContext) {
+            this.value = token(connectionContext)
+                .otherwiseIfEmpty(Mono.error(new IllegalStateException("Token request completed without a token")))
+                .doOnSubscribe(s -> this.requested = System.nanoTime())
+                .doOnNext(t -> {
+                    this.expiration = getExpiration(t);
+                    this.refreshAt = getRefreshAt(this.expiration);
+                    this.token = t;
+                    this.resolved = true;
+                    onRefreshed(connectionContext, this, Duration.ofNanos(System.nanoTime() - this.requested));
+                })
+                .doOnError(t -> {
+                    this.failed = true;
+                    this.resolved = true;
+                    AbstractUaaTokenProvider.this.refreshFailures.incrementAndGet();
+                })
+                .cache();
+        }
+
+        private boolean isExpiredAt(Instant instant) {
+            Instant expiration = this.expiration;
+            return expiration != null && !expiration.isAfter(instant);
+        }
+
+        private boolean isFailed() {
+            return this.failed;
+        }
+
+        private boolean isRefreshDueAt(Instant instant) {
+            Instant refreshAt = this.refreshAt;
+            return refreshAt != null && !refreshAt.isAfter(instant);
+        }
+
+        private boolean isResolved() {
+            return this.resolved;
+        }
+
     }
 
 }
@@ -17,16 +17,22 @@
 package org.cloudfoundry.reactor.util;
 
 
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.AsciiString;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.util.function.Tuple2;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
@@ -58,18 +64,11 @@ public abstract class AbstractReactorOperations {
                                          Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .delete(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
+            .then(uri -> exchange(HttpMethod.DELETE, uri, NetworkLogging.delete(uri),
+                outbound -> outbound
                     .transform(requestTransformer)
-                    .transform(serializedRequest(requestPayload)))
-                .doOnSubscribe(NetworkLogging.delete(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()))
+                    .transform(serializedRequest(requestPayload)),
+                responseTransformer))
             .transform(deserializedResponse(responseType));
     }
 
@@ -89,18 +88,22 @@ public abstract class AbstractReactorOperations {
                                                    Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
+            .then(uri -> exchange(HttpMethod.GET, uri, NetworkLogging.get(uri),
+                outbound -> outbound
                     .transform(requestTransformer)
-                    .flatMap(HttpClientRequest::send))
-                .doOnSubscribe(NetworkLogging.get(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()));
+                    .flatMap(HttpClientRequest::send),
+                responseTransformer));
+    }
+
+    protected final <T, U> Flux<Tuple2<U, T>> doGetResources(Class<U> pageType, Class<T> resourceType,
+                                                             Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
+                                                             Function<Mono<HttpClientRequest>, Mono<HttpClientRequest>> requestTransformer,
+                                                             Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
+
+        return doGet(uriTransformer, requestTransformer,
+            inbound -> inbound
+                .transform(responseTransformer))
+            .as(deserializedResources(pageType, resourceType));
     }
 
     protected final <T> Mono<T> doPatch(Object requestPayload, Class<T> responseType,
@@ -109,18 +112,11 @@ public abstract class AbstractReactorOperations {
                                         Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .patch(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
+            .then(uri -> exchange(HttpMethod.PATCH, uri, NetworkLogging.patch(uri),
+                outbound -> outbound
                     .transform(requestTransformer)
-                    .transform(serializedRequest(requestPayload)))
-                .doOnSubscribe(NetworkLogging.patch(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()))
+                    .transform(serializedRequest(requestPayload)),
+                responseTransformer))
             .transform(deserializedResponse(responseType));
     }
 
@@ -142,17 +138,7 @@ public abstract class AbstractReactorOperations {
                                        Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .post(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
-                    .transform(requestTransformer))
-                .doOnSubscribe(NetworkLogging.post(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()))
+            .then(uri -> exchange(HttpMethod.POST, uri, NetworkLogging.post(uri), requestTransformer, responseTransformer))
             .transform(deserializedResponse(responseType));
     }
 
@@ -174,17 +160,7 @@ public abstract class AbstractReactorOperations {
                                       Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .put(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
-                    .transform(requestTransformer))
-                .doOnSubscribe(NetworkLogging.put(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()))
+            .then(uri -> exchange(HttpMethod.PUT, uri, NetworkLogging.put(uri), requestTransformer, responseTransformer))
             .transform(deserializedResponse(responseType));
     }
 
@@ -193,18 +169,11 @@ public abstract class AbstractReactorOperations {
                                                   Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
         return this.root
             .transform(transformUri(uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, request -> Mono.just(request)
-                    .map(AbstractReactorOperations::disableFailOnError)
-                    .transform(this::addAuthorization)
-                    .map(UserAgent::addUserAgent)
+            .then(uri -> exchange(HttpMethod.GET, uri, NetworkLogging.ws(uri),
+                outbound -> outbound
                     .transform(requestTransformer)
-                    .flatMap(HttpClientRequest::sendWebsocket))
-                .doOnSubscribe(NetworkLogging.ws(uri))
-                .transform(NetworkLogging.response(uri))
-                .transform(this::invalidateToken)
-                .transform(responseTransformer)
-                .transform(ErrorPayloadMapper.fallback()));
+                    .flatMap(HttpClientRequest::sendWebsocket),
+                responseTransformer));
     }
 
     private static HttpClientRequest disableFailOnError(HttpClientRequest request) {
@@ -220,9 +189,10 @@ public abstract class AbstractReactorOperations {
             .map(builder -> builder.build().encode().toString());
     }
 
-    private Mono<HttpClientRequest> addAuthorization(Mono<HttpClientRequest> outbound) {
-        return Mono.when(outbound, this.tokenProvider.getToken(this.connectionContext))
-            .map(function((request, token) -> request.header(AUTHORIZATION, token)));
+    private Function<Mono<HttpClientRequest>, Mono<HttpClientRequest>> addAuthorization(AtomicReference<String> token) {
+        return outbound -> Mono.when(outbound, this.tokenProvider.getToken(this.connectionContext)
+            .doOnNext(token::set))
+            .map(function((request, t) -> request.header(AUTHORIZATION, t)));
     }
 
     private <T> Function<Mono<HttpClientResponse>, Mono<T>> deserializedResponse(Class<T> responseType) {
@@ -231,13 +201,35 @@ public abstract class AbstractReactorOperations {
             .doOnError(JsonParsingException.class, e -> NetworkLogging.RESPONSE_LOGGER.debug("{}\n{}", e.getCause().getMessage(), e.getPayload()));
     }
 
-    private Mono<HttpClientResponse> invalidateToken(Mono<HttpClientResponse> inbound) {
-        return inbound
+    private <T, U> Function<Mono<HttpClientResponse>, Flux<Tuple2<U, T>>> deserializedResources(Class<U> pageType, Class<T> resourceType) {
+        return inbound -> inbound
+            .as(JsonCodec.decodeResources(this.connectionContext.getObjectMapper(), pageType, resourceType))
+            .doOnError(JsonParsingException.class, e -> NetworkLogging.RESPONSE_LOGGER.debug("{}\n{}", e.getCause().getMessage(), e.getPayload()));
+    }
+
+    private Mono<HttpClientResponse> exchange(HttpMethod method, String uri, Consumer<Subscription> logging, Function<Mono<HttpClientRequest>, ? extends Publisher<Void>> requestTransformer,
+                                              Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
+        AtomicReference<String> token = new AtomicReference<>();
+
+        return HttpExchangeRecorder.request(this.connectionContext.getHttpClient(), this.connectionContext.getHttpExchangeListener(), method, uri, outbound -> outbound
+            .map(AbstractReactorOperations::disableFailOnError)
+            .transform(addAuthorization(token))
+            .map(UserAgent::addUserAgent)
+            .transform(requestTransformer))
+            .doOnSubscribe(logging)
+            .transform(NetworkLogging.response(uri))
+            .transform(invalidateToken(token))
+            .transform(responseTransformer)
+            .transform(ErrorPayloadMapper.fallback());
+    }
+
+    private Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> invalidateToken(AtomicReference<String> token) {
+        return inbound -> inbound
             .then(response -> {
                 if (response.status() == HttpResponseStatus.UNAUTHORIZED) {
-                    this.tokenProvider.invalidate(this.connectionContext);
+                    this.tokenProvider.invalidate(this.connectionContext, token.get());
                     return inbound
-                        .transform(this::invalidateToken);
+                        .transform(invalidateToken(token));
                 } else {
                     return Mono.just(response);
                 }
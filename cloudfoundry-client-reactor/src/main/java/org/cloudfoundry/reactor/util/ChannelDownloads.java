@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Utilities for writing response bodies to a {@link ChannelDownload}.  Each buffer is written to the channel through its NIO view, without being copied, on an elastic thread so that a blocking
+ * channel or progress listener never runs on the event loop.  At most a small, fixed number of buffers are held while they wait to be written, so a slow channel slows the download rather than
+ * causing the response to be buffered in memory.  Each buffer is released once it has been written, or when the download terminates or is cancelled.
+ */
+public final class ChannelDownloads {
+
+    private static final int PREFETCH = 8;
+
+    private ChannelDownloads() {
+    }
+
+    /**
+     * Writes a response body to a {@link ChannelDownload}
+     *
+     * @param content  the response body
+     * @param download where to write the response body
+     * @return the outcome of writing the response body
+     */
+    public static Mono<ChannelDownloadResult> write(Flux<ByteBuf> content, ChannelDownload download) {
+        return Mono
+            .defer(() -> {
+                Writer writer = new Writer(download);
+
+                return content
+                    .map(writer::retain)
+                    .publishOn(Schedulers.elastic(), PREFETCH)
+                    .doOnNext(writer::write)
+                    .doOnCancel(writer::release)
+                    .doOnTerminate(writer::release)
+                    .then()
+                    .then(Mono.fromCallable(writer::complete));
+            });
+    }
+
+    private static final class Writer {
+
+        private final Optional<MessageDigest> digest;
+
+        private final ChannelDownload download;
+
+        private final Queue<ByteBuf> pending = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean released;
+
+        private long bytes;
+
+        private Writer(ChannelDownload download) {
+            this.digest = Optional.ofNullable(download.getDigestAlgorithm()).map(Writer::getMessageDigest);
+            this.download = download;
+        }
+
+        private static MessageDigest getMessageDigest(String algorithm) {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private ChannelDownloadResult complete() {
+            String digest = this.digest
+                .map(d -> {
+                    byte[] value = d.digest();
+                    return String.format("%0" + (value.length * 2) + "x", new BigInteger(1, value));
+                })
+                .orElse(null);
+
+            String expected = this.download.getExpectedDigest();
+            if (expected != null && !expected.equalsIgnoreCase(digest)) {
+                throw new IllegalStateException(String.format("Downloaded bits have digest %s, expected %s", digest, expected));
+            }
+
+            return ChannelDownloadResult.builder()
+                .bytes(this.bytes)
+                .digest(digest)
+                .build();
+        }
+
+        private void release() {
+            this.released = true;
+
+            ByteBuf buffer;
+            while ((buffer = this.pending.poll()) != null) {
+                buffer.release();
+            }
+        }
+
+        private ByteBuf retain(ByteBuf buffer) {
+            this.pending.add(buffer.retain());
+
+            if (this.released) {
+                release();
+            }
+
+            return buffer;
+        }
+
+        private void write(ByteBuf buffer) {
+            if (this.pending.poll() != buffer) {
+                return;
+            }
+
+            try {
+                for (ByteBuffer nioBuffer : buffer.nioBuffers()) {
+                    this.digest.ifPresent(d -> d.update(nioBuffer.duplicate()));
+
+                    while (nioBuffer.hasRemaining()) {
+                        this.bytes += this.download.getChannel().write(nioBuffer);
+                    }
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            } finally {
+                buffer.release();
+            }
+
+            Optional.ofNullable(this.download.getProgressListener())
+                .ifPresent(listener -> listener.accept(this.bytes));
+        }
+
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import org.cloudfoundry.reactor.ConnectionPoolConfiguration;
+import reactor.ipc.netty.resources.PoolResources;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link PoolResources} that maintain a fixed size pool of connections per remote address, configured per host.  Connections that have been unused for longer than the maximum idle time, or open
+ * for longer than the maximum lifetime, are closed rather than reused.  These limits are checked when a connection is acquired or released, so an idle connection is not closed in the background
+ * and remains open until the pool next hands it out.  The number of active and idle connections and of pending acquires are exposed per host.
+ */
+public final class ConnectionPools implements PoolResources {
+
+    private static final AttributeKey<Long> CREATED = AttributeKey.valueOf("cloudfoundry-client.created");
+
+    private static final AttributeKey<Boolean> IDLE = AttributeKey.valueOf("cloudfoundry-client.idle");
+
+    private static final AttributeKey<Long> LAST_USED = AttributeKey.valueOf("cloudfoundry-client.last-used");
+
+    private final ConnectionPoolConfiguration defaultConfiguration;
+
+    private final Map<String, ConnectionPoolConfiguration> hostConfigurations;
+
+    private final ConcurrentMap<SocketAddress, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance
+     *
+     * @param defaultConfiguration the configuration of hosts without a specific configuration.  Must specify the maximum number of connections.
+     * @param hostConfigurations   the configurations of specific hosts, keyed by host name.  Unspecified values are taken from {@code defaultConfiguration}.
+     */
+    public ConnectionPools(ConnectionPoolConfiguration defaultConfiguration, Map<String, ConnectionPoolConfiguration> hostConfigurations) {
+        if (!defaultConfiguration.getMaxConnections().isPresent()) {
+            throw new IllegalArgumentException("Default connection pool configuration must specify the maximum number of connections");
+        }
+
+        this.defaultConfiguration = defaultConfiguration;
+        this.hostConfigurations = hostConfigurations;
+    }
+
+    @Override
+    public void dispose() {
+        this.pools.values().forEach(pool -> pool.delegate.close());
+        this.pools.clear();
+    }
+
+    /**
+     * Returns the number of connections currently in use, across all hosts
+     */
+    public int getActive() {
+        return this.pools.values().stream().mapToInt(pool -> pool.active.get()).sum();
+    }
+
+    /**
+     * Returns the number of connections currently in use for a host
+     *
+     * @param host the host
+     */
+    public int getActive(String host) {
+        return this.pools.values().stream().filter(pool -> pool.host.equals(host)).mapToInt(pool -> pool.active.get()).sum();
+    }
+
+    /**
+     * Returns the number of open connections waiting to be reused, across all hosts
+     */
+    public int getIdle() {
+        return this.pools.values().stream().mapToInt(pool -> pool.idle.get()).sum();
+    }
+
+    /**
+     * Returns the number of open connections waiting to be reused for a host
+     *
+     * @param host the host
+     */
+    public int getIdle(String host) {
+        return this.pools.values().stream().filter(pool -> pool.host.equals(host)).mapToInt(pool -> pool.idle.get()).sum();
+    }
+
+    /**
+     * Returns the number of requests waiting for a connection, across all hosts
+     */
+    public int getPendingAcquires() {
+        return this.pools.values().stream().mapToInt(pool -> pool.pending.get()).sum();
+    }
+
+    /**
+     * Returns the number of requests waiting for a connection to a host
+     *
+     * @param host the host
+     */
+    public int getPendingAcquires(String host) {
+        return this.pools.values().stream().filter(pool -> pool.host.equals(host)).mapToInt(pool -> pool.pending.get()).sum();
+    }
+
+    @Override
+    public ChannelPool selectOrCreate(SocketAddress address, Supplier<? extends Bootstrap> bootstrap, Consumer<? super Channel> onChannelCreate, Consumer<? super Channel> onChannelAcquire,
+                                      Consumer<? super Channel> onChannelRelease) {
+
+        return this.pools.computeIfAbsent(address, a -> {
+            String host = a instanceof InetSocketAddress ? ((InetSocketAddress) a).getHostString() : a.toString();
+            return new Pool(host, bootstrap.get().remoteAddress(a), configuration(host), onChannelCreate, onChannelAcquire, onChannelRelease);
+        });
+    }
+
+    private ConnectionPoolConfiguration configuration(String host) {
+        ConnectionPoolConfiguration configuration = this.hostConfigurations.get(host);
+
+        if (configuration == null) {
+            return this.defaultConfiguration;
+        }
+
+        return ConnectionPoolConfiguration.builder()
+            .from(this.defaultConfiguration)
+            .from(configuration)
+            .build();
+    }
+
+    private static final class Pool implements ChannelHealthChecker, ChannelPool, ChannelPoolHandler {
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final ChannelPool delegate;
+
+        private final String host;
+
+        private final AtomicInteger idle = new AtomicInteger();
+
+        private final long maxIdleTime;
+
+        private final long maxLifetime;
+
+        private final Consumer<? super Channel> onChannelAcquire;
+
+        private final Consumer<? super Channel> onChannelCreate;
+
+        private final Consumer<? super Channel> onChannelRelease;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Pool(String host, Bootstrap bootstrap, ConnectionPoolConfiguration configuration, Consumer<? super Channel> onChannelCreate, Consumer<? super Channel> onChannelAcquire,
+                     Consumer<? super Channel> onChannelRelease) {
+
+            this.host = host;
+            this.maxIdleTime = configuration.getMaxIdleTime().map(Duration::toMillis).orElse(Long.MAX_VALUE);
+            this.maxLifetime = configuration.getMaxLifetime().map(Duration::toMillis).orElse(Long.MAX_VALUE);
+            this.onChannelAcquire = onChannelAcquire;
+            this.onChannelCreate = onChannelCreate;
+            this.onChannelRelease = onChannelRelease;
+
+            this.delegate = configuration.getAcquireTimeout()
+                .map(acquireTimeout -> new FixedChannelPool(bootstrap, this, this, FixedChannelPool.AcquireTimeoutAction.FAIL, acquireTimeout.toMillis(),
+                    configuration.getMaxConnections().orElseThrow(IllegalStateException::new), configuration.getMaxPendingAcquires().orElse(Integer.MAX_VALUE)))
+                .orElseGet(() -> new FixedChannelPool(bootstrap, this, this, null, -1,
+                    configuration.getMaxConnections().orElseThrow(IllegalStateException::new), configuration.getMaxPendingAcquires().orElse(Integer.MAX_VALUE)));
+        }
+
+        @Override
+        public Future<Channel> acquire() {
+            return pending(this.delegate.acquire());
+        }
+
+        @Override
+        public Future<Channel> acquire(Promise<Channel> promise) {
+            return pending(this.delegate.acquire(promise));
+        }
+
+        @Override
+        public void channelAcquired(Channel channel) throws Exception {
+            if (Boolean.TRUE.equals(channel.attr(IDLE).getAndSet(false))) {
+                this.idle.decrementAndGet();
+            }
+
+            this.active.incrementAndGet();
+            channel.attr(LAST_USED).set(System.currentTimeMillis());
+            this.onChannelAcquire.accept(channel);
+        }
+
+        @Override
+        public void channelCreated(Channel channel) throws Exception {
+            long now = System.currentTimeMillis();
+
+            this.active.incrementAndGet();
+            channel.attr(CREATED).set(now);
+            channel.attr(LAST_USED).set(now);
+            channel.closeFuture().addListener(future -> {
+                if (Boolean.TRUE.equals(channel.attr(IDLE).getAndSet(false))) {
+                    this.idle.decrementAndGet();
+                }
+            });
+            this.onChannelCreate.accept(channel);
+        }
+
+        @Override
+        public void channelReleased(Channel channel) throws Exception {
+            this.active.decrementAndGet();
+
+            if (isUsable(channel, System.currentTimeMillis(), false) && !Boolean.TRUE.equals(channel.attr(IDLE).getAndSet(true))) {
+                this.idle.incrementAndGet();
+            }
+
+            channel.attr(LAST_USED).set(System.currentTimeMillis());
+            this.onChannelRelease.accept(channel);
+        }
+
+        @Override
+        public void close() {
+            this.delegate.close();
+        }
+
+        @Override
+        public Future<Boolean> isHealthy(Channel channel) {
+            boolean healthy = isUsable(channel, System.currentTimeMillis(), Boolean.TRUE.equals(channel.attr(IDLE).get()));
+
+            if (!healthy) {
+                if (Boolean.TRUE.equals(channel.attr(IDLE).getAndSet(false))) {
+                    this.idle.decrementAndGet();
+                }
+
+                channel.close();
+            }
+
+            return channel.eventLoop().newSucceededFuture(healthy);
+        }
+
+        @Override
+        public Future<Void> release(Channel channel) {
+            return this.delegate.release(channel);
+        }
+
+        @Override
+        public Future<Void> release(Channel channel, Promise<Void> promise) {
+            return this.delegate.release(channel, promise);
+        }
+
+        private static boolean expired(Long since, long now, long max) {
+            return since != null && max != Long.MAX_VALUE && now - since > max;
+        }
+
+        private boolean isUsable(Channel channel, long now, boolean idle) {
+            return channel.isActive()
+                && !expired(channel.attr(CREATED).get(), now, this.maxLifetime)
+                && !(idle && expired(channel.attr(LAST_USED).get(), now, this.maxIdleTime));
+        }
+
+        private <T> Future<T> pending(Future<T> future) {
+            this.pending.incrementAndGet();
+            future.addListener(f -> this.pending.decrementAndGet());
+            return future;
+        }
+
+    }
+
+}
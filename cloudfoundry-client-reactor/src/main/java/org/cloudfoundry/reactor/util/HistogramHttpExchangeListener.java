@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.cloudfoundry.reactor.HttpExchange;
+import org.cloudfoundry.reactor.HttpExchangeListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link HttpExchangeListener} that records the latency, in nanoseconds, of exchanges in a {@link Histogram} per method and templated path (e.g. {@code GET /v2/apps/{id}}).  Failed exchanges are
+ * recorded in the same histogram as successful ones.
+ */
+public final class HistogramHttpExchangeListener implements HttpExchangeListener {
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the latency histogram for an endpoint
+     *
+     * @param method the request method
+     * @param path   the templated request path
+     * @return the histogram, if an exchange with the endpoint has completed
+     */
+    public Optional<Histogram> getHistogram(String method, String path) {
+        return Optional.ofNullable(this.histograms.get(key(method, path)));
+    }
+
+    /**
+     * Returns the latency histograms of all endpoints, keyed by method and templated path (e.g. {@code GET /v2/apps/{id}})
+     */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(this.histograms);
+    }
+
+    @Override
+    public void onExchange(HttpExchange exchange) {
+        this.histograms.computeIfAbsent(key(exchange.getMethod(), exchange.getPath()), k -> new Histogram())
+            .record(exchange.getLatency().toNanos());
+    }
+
+    private static String key(String method, String path) {
+        return String.format("%s %s", method, path);
+    }
+
+}
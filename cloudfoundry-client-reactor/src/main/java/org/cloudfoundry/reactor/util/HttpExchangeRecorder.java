@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.cloudfoundry.reactor.HttpExchange;
+import org.cloudfoundry.reactor.HttpExchangeListener;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.SWITCHING_PROTOCOLS;
+
+/**
+ * Records an HTTP exchange and reports it to an {@link HttpExchangeListener}.  The request is instrumented with {@link #outbound(HttpClientRequest)} and the response with {@link #inbound(Mono)}.
+ * Payload bytes are counted by a handler in the channel pipeline and the exchange is reported once the last chunk of the response has been received, the exchange fails, or the connection is
+ * released.  A websocket exchange is reported once the upgrade response has been received.
+ */
+public final class HttpExchangeRecorder {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9]+)(?=/|$)");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.exchange");
+
+    private final HttpExchangeListener listener;
+
+    private final String method;
+
+    private final String path;
+
+    private volatile Exchange exchange;
+
+    private volatile long subscribed;
+
+    public HttpExchangeRecorder(HttpExchangeListener listener, HttpMethod method, String uri) {
+        this.listener = listener;
+        this.method = method.name();
+        this.path = template(uri);
+    }
+
+    /**
+     * Makes a request and records its exchange
+     *
+     * @param httpClient         the client to make the request with
+     * @param listener           the listener to report the exchange to
+     * @param method             the method of the request
+     * @param uri                the uri of the request
+     * @param requestTransformer a function that sends the instrumented request
+     * @return the instrumented response
+     */
+    public static Mono<HttpClientResponse> request(HttpClient httpClient, HttpExchangeListener listener, HttpMethod method, String uri,
+                                                   Function<Mono<HttpClientRequest>, ? extends Publisher<Void>> requestTransformer) {
+        HttpExchangeRecorder exchange = new HttpExchangeRecorder(listener, method, uri);
+
+        return httpClient
+            .request(method, uri, request -> Mono.just(request)
+                .map(exchange::outbound)
+                .transform(requestTransformer))
+            .transform(exchange::inbound);
+    }
+
+    /**
+     * Instruments the response of an exchange
+     *
+     * @param inbound the response to instrument
+     * @return the instrumented response
+     */
+    public Mono<HttpClientResponse> inbound(Mono<HttpClientResponse> inbound) {
+        return inbound
+            .doOnSubscribe(s -> {
+                this.exchange = null;
+                this.subscribed = System.nanoTime();
+            })
+            .doOnNext(response -> current().onResponse(response))
+            .doOnError(t -> current().report(t));
+    }
+
+    /**
+     * Instruments the request of an exchange
+     *
+     * @param request the request to instrument
+     * @return the instrumented request
+     */
+    public HttpClientRequest outbound(HttpClientRequest request) {
+        Exchange exchange = new Exchange(this.subscribed);
+        this.exchange = exchange;
+
+        request.context(context -> context.addHandler(exchange));
+        return request;
+    }
+
+    static String template(String uri) {
+        String path = Optional.ofNullable(UriComponentsBuilder.fromUriString(uri).build().getPath()).orElse("/");
+        return IDENTIFIER.matcher(path).replaceAll("/{id}");
+    }
+
+    private static long size(Object message) {
+        if (message instanceof ByteBuf) {
+            return ((ByteBuf) message).readableBytes();
+        } else if (message instanceof ByteBufHolder) {
+            return ((ByteBufHolder) message).content().readableBytes();
+        } else {
+            return 0;
+        }
+    }
+
+    private Exchange current() {
+        Exchange exchange = this.exchange;
+
+        if (exchange == null) {
+            exchange = new Exchange(this.subscribed);
+            this.exchange = exchange;
+        }
+
+        return exchange;
+    }
+
+    private final class Exchange extends ChannelDuplexHandler {
+
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private volatile long bytesIn;
+
+        private volatile long bytesOut;
+
+        private volatile long firstByte;
+
+        private volatile Integer status;
+
+        private final long subscribed;
+
+        private Exchange(long subscribed) {
+            this.subscribed = subscribed;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            this.bytesIn += size(msg);
+            boolean last = msg instanceof LastHttpContent;
+
+            super.channelRead(ctx, msg);
+
+            if (last) {
+                ctx.pipeline().remove(this);
+            }
+        }
+
+        @Override
+        public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+            report(null);
+            super.handlerRemoved(ctx);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            this.bytesOut += size(msg);
+            super.write(ctx, msg, promise);
+        }
+
+        private void onResponse(HttpClientResponse response) {
+            this.firstByte = System.nanoTime();
+            this.status = response.status().code();
+
+            if (SWITCHING_PROTOCOLS.equals(response.status())) {
+                report(null);
+            }
+        }
+
+        private void report(Throwable error) {
+            if (!this.reported.compareAndSet(false, true)) {
+                return;
+            }
+
+            long subscribed = this.subscribed;
+            long firstByte = this.firstByte;
+
+            HttpExchange exchange = HttpExchange.builder()
+                .bytesIn(this.bytesIn)
+                .bytesOut(this.bytesOut)
+                .error(Optional.ofNullable(error))
+                .latency(Duration.ofNanos(System.nanoTime() - subscribed))
+                .method(HttpExchangeRecorder.this.method)
+                .path(HttpExchangeRecorder.this.path)
+                .status(Optional.ofNullable(this.status))
+                .timeToFirstByte(firstByte == 0 ? Optional.empty() : Optional.of(Duration.ofNanos(firstByte - subscribed)))
+                .build();
+
+            try {
+                HttpExchangeRecorder.this.listener.onExchange(exchange);
+            } catch (RuntimeException e) {
+                LOGGER.warn("HTTP exchange listener failed: {}", e.getMessage());
+            }
+        }
+
+    }
+
+}
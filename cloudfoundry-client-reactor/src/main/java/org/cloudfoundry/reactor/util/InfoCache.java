@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of {@code /v2/info} payloads, keyed by API root.  An entry is fresh for the configured time-to-live from the moment its payload is received.  Once it is stale, the stale payload
+ * continues to be returned while a single background request revalidates it.  Revalidation uses the request of the caller that found the entry stale, so a cache shared between connection contexts
+ * never refreshes through another context's connection.  An instance can be shared between connection contexts so that contexts for the same API root only request the payload once.
+ */
+public final class InfoCache {
+
+    /**
+     * The default time-to-live of an entry
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.info");
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder refreshFailures = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder staleHits = new LongAdder();
+
+    private final long ttl;
+
+    /**
+     * Creates an instance with the {@link #DEFAULT_TTL default time-to-live}
+     */
+    public InfoCache() {
+        this(DEFAULT_TTL);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param ttl the time-to-live of an entry
+     */
+    public InfoCache(Duration ttl) {
+        this.ttl = ttl.toNanos();
+    }
+
+    /**
+     * Returns the payload for an API root, requesting it with {@code loader} if it is not cached.  If the cached payload is stale it is returned and revalidated in the background.
+     *
+     * @param root   the API root
+     * @param loader the request for the payload
+     * @return the payload
+     */
+    public Mono<Map<String, String>> get(String root, Mono<Map<String, String>> loader) {
+        return Mono.defer(() -> {
+            Entry entry = this.entries.get(root);
+
+            if (entry == null) {
+                Entry candidate = new Entry(root, loader);
+                entry = this.entries.putIfAbsent(root, candidate);
+
+                if (entry == null) {
+                    this.misses.increment();
+                    return candidate.value;
+                }
+            }
+
+            if (entry.isStale()) {
+                this.staleHits.increment();
+                revalidate(root, entry, loader);
+            } else {
+                this.hits.increment();
+            }
+
+            return entry.value;
+        });
+    }
+
+    /**
+     * The number of requests served by a fresh entry
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * The number of requests that were not cached and had to wait for the payload
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * The number of background revalidations that failed.  A failed revalidation leaves the stale entry in place.
+     */
+    public long getRefreshFailures() {
+        return this.refreshFailures.sum();
+    }
+
+    /**
+     * The number of background revalidations started
+     */
+    public long getRefreshes() {
+        return this.refreshes.sum();
+    }
+
+    /**
+     * The number of requests served by a stale entry
+     */
+    public long getStaleHits() {
+        return this.staleHits.sum();
+    }
+
+    /**
+     * Removes the entry for an API root so that the next request waits for a new payload
+     *
+     * @param root the API root
+     */
+    public void invalidate(String root) {
+        this.entries.remove(root);
+    }
+
+    /**
+     * Revalidates the entry for an API root in the background, regardless of its age.  The current payload continues to be returned until the new one has been received.
+     *
+     * @param root   the API root
+     * @param loader the request for the payload
+     */
+    public void refresh(String root, Mono<Map<String, String>> loader) {
+        Entry entry = this.entries.get(root);
+
+        if (entry != null) {
+            revalidate(root, entry, loader);
+        }
+    }
+
+    private void revalidate(String root, Entry entry, Mono<Map<String, String>> loader) {
+        if (!entry.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.refreshes.increment();
+        LOGGER.debug("Revalidating info for {}", root);
+
+        Entry replacement = new Entry(root, loader);
+        replacement.value
+            .subscribe(payload -> this.entries.replace(root, entry, replacement),
+                t -> {
+                    this.refreshFailures.increment();
+                    entry.revalidating.set(false);
+                    LOGGER.warn("Unable to revalidate info for {}: {}", root, t.getMessage());
+                });
+    }
+
+    private final class Entry {
+
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private final Mono<Map<String, String>> value;
+
+        private volatile long expiration;
+
+        private volatile boolean loaded;
+
+        private Entry(String root, Mono<Map<String, String>> loader) {
+            this.value = loader
+                .doOnNext(payload -> {
+                    this.expiration = System.nanoTime() + InfoCache.this.ttl;
+                    this.loaded = true;
+                })
+                .doOnError(t -> InfoCache.this.entries.remove(root, this))
+                .cache();
+        }
+
+        private boolean isStale() {
+            return this.loaded && System.nanoTime() - this.expiration >= 0;
+        }
+
+    }
+
+}
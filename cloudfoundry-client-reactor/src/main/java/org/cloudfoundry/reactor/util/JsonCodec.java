@@ -16,36 +16,83 @@
 
 package org.cloudfoundry.reactor.util;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
-import io.netty.handler.codec.json.JsonObjectDecoder;
 import org.reactivestreams.Publisher;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Function;
 
 public final class JsonCodec {
 
+    private static final String RESOURCES = "resources";
+
+    /**
+     * Decodes the body of a response into an instance of {@code responseType}.  The chunks of the body are aggregated into a composite {@link ByteBuf} without copying and Jackson reads directly
+     * from that buffer as UTF-8.  The raw payload is only materialized as a {@link String} for a {@link JsonParsingException} when response logging is enabled at {@code DEBUG}.
+     *
+     * @param objectMapper the {@link ObjectMapper} to decode with
+     * @param responseType the type to decode into
+     * @param <T>          the type to decode into
+     * @return a function that decodes the response
+     */
     public static <T> Function<Mono<HttpClientResponse>, Flux<T>> decode(ObjectMapper objectMapper, Class<T> responseType) {
         return inbound -> inbound
-            .flatMap(response -> response.addHandler(new JsonObjectDecoder()).receive().aggregate())
-            .map(byteBuf -> {
-                String content = byteBuf.toString(Charset.defaultCharset());
+            .flatMap(response -> response.receive().aggregate())
+            .map(byteBuf -> read(objectMapper, byteBuf, responseType));
+    }
 
-                try {
-                    return objectMapper.readValue(content, responseType);
-                } catch (IOException e) {
-                    throw Exceptions.propagate(new JsonParsingException(e.getMessage(), e, content));
-                }
-            });
+    /**
+     * Decodes the elements of the {@code resources} array in the body of a paginated response into instances of {@code resourceType}, each paired with the page they were read from.  The page is
+     * decoded once from every other field of the body, so its resources are {@code null}.  Each element is read from the aggregated body only when it is requested downstream, so the first element
+     * is available without decoding the rest of the page and the elements of a page are never all materialized at once.
+     *
+     * @param objectMapper the {@link ObjectMapper} to decode with
+     * @param pageType     the type to decode the page into
+     * @param resourceType the type to decode each element into
+     * @param <T>          the type to decode each element into
+     * @param <U>          the type to decode the page into
+     * @return a function that decodes the response
+     */
+    public static <T, U> Function<Mono<HttpClientResponse>, Flux<Tuple2<U, T>>> decodeResources(ObjectMapper objectMapper, Class<U> pageType, Class<T> resourceType) {
+        return inbound -> inbound
+            .flatMap(response -> response.receive().aggregate())
+            .flatMap(byteBuf -> Flux.using(byteBuf::retain,
+                buffer -> {
+                    U page = readPage(objectMapper, buffer, pageType);
+
+                    return Flux.<T, JsonParser>generate(() -> resourcesParser(objectMapper, buffer),
+                        (parser, sink) -> {
+                            T resource = readResource(objectMapper, parser, buffer, resourceType);
+
+                            if (resource != null) {
+                                sink.next(resource);
+                            } else {
+                                sink.complete();
+                            }
+
+                            return parser;
+                        },
+                        JsonCodec::close)
+                        .map(resource -> Tuples.of(page, resource));
+                },
+                ByteBuf::release));
     }
 
     static Function<Mono<HttpClientRequest>, Publisher<Void>> encode(ObjectMapper objectMapper, Object requestPayload) {
@@ -66,4 +113,90 @@ public final class JsonCodec {
             });
     }
 
+    static <T> T read(ObjectMapper objectMapper, ByteBuf byteBuf, Class<T> responseType) {
+        try (InputStream in = new ByteBufInputStream(byteBuf.duplicate())) {
+            return objectMapper.readValue(in, responseType);
+        } catch (IOException e) {
+            throw Exceptions.propagate(new JsonParsingException(e.getMessage(), e, getPayload(byteBuf)));
+        }
+    }
+
+    private static void close(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static JsonParser createParser(ObjectMapper objectMapper, ByteBuf byteBuf) throws IOException {
+        return objectMapper.getFactory().createParser((InputStream) new ByteBufInputStream(byteBuf.duplicate()));
+    }
+
+    private static String getPayload(ByteBuf byteBuf) {
+        return NetworkLogging.RESPONSE_LOGGER.isDebugEnabled() ? byteBuf.toString(StandardCharsets.UTF_8) : null;
+    }
+
+    private static <U> U readPage(ObjectMapper objectMapper, ByteBuf byteBuf, Class<U> pageType) {
+        try (JsonParser parser = createParser(objectMapper, byteBuf)) {
+            TokenBuffer page = new TokenBuffer(objectMapper, false);
+            page.writeStartObject();
+
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+
+                    if (RESOURCES.equals(name)) {
+                        parser.skipChildren();
+                    } else {
+                        page.writeFieldName(name);
+                        page.copyCurrentStructure(parser);
+                    }
+                }
+            }
+
+            page.writeEndObject();
+            return objectMapper.readValue(page.asParser(), pageType);
+        } catch (IOException e) {
+            throw Exceptions.propagate(new JsonParsingException(e.getMessage(), e, getPayload(byteBuf)));
+        }
+    }
+
+    private static <T> T readResource(ObjectMapper objectMapper, JsonParser parser, ByteBuf byteBuf, Class<T> resourceType) {
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            return objectMapper.readValue(parser, resourceType);
+        } catch (IOException e) {
+            throw Exceptions.propagate(new JsonParsingException(e.getMessage(), e, getPayload(byteBuf)));
+        }
+    }
+
+    private static JsonParser resourcesParser(ObjectMapper objectMapper, ByteBuf byteBuf) {
+        try {
+            JsonParser parser = createParser(objectMapper, byteBuf);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return parser;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+
+                if (parser.nextToken() == JsonToken.START_ARRAY && RESOURCES.equals(name)) {
+                    return parser;
+                }
+
+                parser.skipChildren();
+            }
+
+            return parser;
+        } catch (IOException e) {
+            throw Exceptions.propagate(new JsonParsingException(e.getMessage(), e, getPayload(byteBuf)));
+        }
+    }
+
 }
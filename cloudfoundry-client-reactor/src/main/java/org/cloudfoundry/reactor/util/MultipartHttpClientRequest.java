@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+
+/**
+ * A {@code multipart/form-data} request whose parts are written as they are produced.  Unlike {@link HttpClientRequest#sendForm}, parts backed by an {@link InputStream} are neither buffered in
+ * memory nor staged on disk.  The stream is read on an elastic thread only as fast as the connection accepts data, and the request is sent with chunked transfer encoding as its length is not known
+ * ahead of time.
+ */
+public final class MultipartHttpClientRequest {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private static final String CRLF = "\r\n";
+
+    private final String boundary = UUID.randomUUID().toString().replace("-", "");
+
+    private final HttpClientRequest outbound;
+
+    private final List<Publisher<ByteBuf>> parts = new ArrayList<>();
+
+    public MultipartHttpClientRequest(HttpClientRequest outbound) {
+        this.outbound = outbound;
+    }
+
+    /**
+     * Adds a part whose content is already in memory
+     *
+     * @param name        the name of the part
+     * @param contentType the content type of the part
+     * @param content     the content of the part
+     * @return this request
+     */
+    public MultipartHttpClientRequest addPart(String name, String contentType, byte[] content) {
+        this.parts.add(Flux.defer(() -> Flux.just(
+            toByteBuf(getHeader(String.format("form-data; name=\"%s\"", name), contentType)),
+            Unpooled.wrappedBuffer(content),
+            toByteBuf(CRLF))));
+
+        return this;
+    }
+
+    /**
+     * Adds a file part whose content is read from an {@link InputStream}.  The stream is opened when the request is sent and closed once it has been read or the request is cancelled.
+     *
+     * @param name        the name of the part
+     * @param filename    the filename of the part
+     * @param contentType the content type of the part
+     * @param content     a {@link Callable} that opens the stream containing the content of the part
+     * @return this request
+     */
+    public MultipartHttpClientRequest addPart(String name, String filename, String contentType, Callable<InputStream> content) {
+        this.parts.add(Flux.concat(
+            Mono.fromCallable(() -> toByteBuf(getHeader(String.format("form-data; name=\"%s\"; filename=\"%s\"", name, filename), contentType))),
+            toByteBufs(content),
+            Mono.fromCallable(() -> toByteBuf(CRLF))));
+
+        return this;
+    }
+
+    /**
+     * Adds a file part whose content is published as the request is sent.  Content is requested only as fast as the connection accepts data.
+     *
+     * @param name        the name of the part
+     * @param filename    the filename of the part
+     * @param contentType the content type of the part
+     * @param content     the content of the part
+     * @return this request
+     */
+    public MultipartHttpClientRequest addPart(String name, String filename, String contentType, Flux<byte[]> content) {
+        this.parts.add(Flux.concat(
+            Mono.fromCallable(() -> toByteBuf(getHeader(String.format("form-data; name=\"%s\"; filename=\"%s\"", name, filename), contentType))),
+            content.map(Unpooled::wrappedBuffer),
+            Mono.fromCallable(() -> toByteBuf(CRLF))));
+
+        return this;
+    }
+
+    /**
+     * Sends the request
+     *
+     * @return a {@link Mono} that completes when the request has been sent
+     */
+    public Mono<Void> done() {
+        return Mono.from(this.outbound
+            .header(CONTENT_TYPE, String.format("multipart/form-data; boundary=%s", this.boundary))
+            .send(Flux.concat(this.parts)
+                .concatWith(Mono.fromCallable(() -> toByteBuf(String.format("--%s--%s", this.boundary, CRLF))))));
+    }
+
+    private static ByteBuf toByteBuf(String s) {
+        return Unpooled.wrappedBuffer(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Flux<ByteBuf> toByteBufs(Callable<InputStream> content) {
+        return Flux
+            .<ByteBuf, InputStream>generate(content, (in, sink) -> {
+                try {
+                    byte[] chunk = new byte[CHUNK_SIZE];
+                    int length = in.read(chunk);
+
+                    if (length == -1) {
+                        sink.complete();
+                    } else {
+                        sink.next(Unpooled.wrappedBuffer(chunk, 0, length));
+                    }
+                } catch (IOException e) {
+                    sink.error(e);
+                }
+
+                return in;
+            }, in -> {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // nothing further can be done with the stream
+                }
+            })
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    private String getHeader(String contentDisposition, String contentType) {
+        return String.format("--%s%scontent-disposition: %s%scontent-type: %s%s%s", this.boundary, CRLF, contentDisposition, CRLF, contentType, CRLF, CRLF);
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.cloudfoundry.util.FileUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * Utilities for staging upload content in temporary files so that requests can be sent with a {@code Content-Length} rather than with chunked transfer encoding
+ */
+public final class UploadStaging {
+
+    private UploadStaging() {
+    }
+
+    /**
+     * Compresses the contents of a directory into a temporary zip file and uploads it.  The directory is compressed on an elastic thread and the file is deleted once the upload has terminated.
+     *
+     * @param directory the directory to compress
+     * @param upload    a function that uploads the zip file
+     * @param <T>       the type of the upload result
+     * @return the result of the upload
+     */
+    public static <T> Mono<T> compressed(Path directory, Function<Path, Mono<T>> upload) {
+        return Mono
+            .using(() -> FileUtils.compress(directory, path -> true), upload, UploadStaging::delete)
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+}
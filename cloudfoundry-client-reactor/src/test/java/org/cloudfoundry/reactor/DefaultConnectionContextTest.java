@@ -24,6 +24,7 @@ import java.time.Duration;
 
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public final class DefaultConnectionContextTest extends AbstractRestTest {
 
@@ -53,4 +54,21 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void getRootCached() throws Exception {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/info")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/info/GET_response.json")
+                .build())
+            .build());
+
+        String root = this.connectionContext.getRoot("authorization_endpoint").block(Duration.ofSeconds(5));
+
+        assertThat(this.connectionContext.getRoot("authorization_endpoint").block(Duration.ofSeconds(5))).isSameAs(root);
+    }
+
 }
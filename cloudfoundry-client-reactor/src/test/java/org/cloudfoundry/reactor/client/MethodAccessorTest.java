@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.client;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MethodAccessorTest {
+
+    @Test
+    public void invoke() throws NoSuchMethodException {
+        MethodAccessor accessor = new MethodAccessor(this.getClass().getDeclaredMethod("alpha"));
+
+        assertThat(accessor.invoke(this)).isEqualTo("test-value");
+    }
+
+    @Test
+    public void invokePrimitive() throws NoSuchMethodException {
+        MethodAccessor accessor = new MethodAccessor(this.getClass().getDeclaredMethod("bravo"));
+
+        assertThat(accessor.invoke(this)).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invokeThrows() throws NoSuchMethodException {
+        MethodAccessor accessor = new MethodAccessor(this.getClass().getDeclaredMethod("charlie"));
+
+        accessor.invoke(this);
+    }
+
+    private String alpha() {
+        return "test-value";
+    }
+
+    private int bravo() {
+        return 1;
+    }
+
+    private String charlie() {
+        throw new IllegalArgumentException();
+    }
+
+}
@@ -16,6 +16,8 @@
 
 package org.cloudfoundry.reactor.client.v2.applications;
 
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
 import org.cloudfoundry.client.v2.Metadata;
 import org.cloudfoundry.client.v2.applications.ApplicationEntity;
 import org.cloudfoundry.client.v2.applications.ApplicationEnvironmentRequest;
@@ -67,6 +69,8 @@ import org.cloudfoundry.client.v2.servicebindings.ServiceBindingEntity;
 import org.cloudfoundry.client.v2.servicebindings.ServiceBindingResource;
 import org.cloudfoundry.client.v2.serviceinstances.Service;
 import org.cloudfoundry.client.v2.serviceinstances.ServiceInstance;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
 import org.cloudfoundry.reactor.InteractionContext;
 import org.cloudfoundry.reactor.TestRequest;
 import org.cloudfoundry.reactor.TestResponse;
@@ -75,12 +79,21 @@ import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.OperationUtils;
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Flux;
+import reactor.ipc.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.netty.handler.codec.http.HttpMethod.DELETE;
 import static io.netty.handler.codec.http.HttpMethod.GET;
@@ -293,6 +306,67 @@ public final class ReactorApplicationsV2Test extends AbstractClientApiTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void downloadToChannel() {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/apps/test-application-id/download")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/apps/GET_{id}_download_response.bin")
+                .build())
+            .build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AtomicLong progress = new AtomicLong();
+
+        this.applications
+            .download(DownloadApplicationRequest.builder()
+                .applicationId("test-application-id")
+                .build(), ChannelDownload.builder()
+                .channel(Channels.newChannel(out))
+                .digestAlgorithm("SHA-1")
+                .expectedDigest("a53f2b8828c0d196921c08df7d4d80f444fa97e5")
+                .progressListener(progress::set)
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(ChannelDownloadResult.builder()
+                .bytes(412L)
+                .digest("a53f2b8828c0d196921c08df7d4d80f444fa97e5")
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(out.toByteArray()).isEqualTo(getBytes("fixtures/client/v2/apps/GET_{id}_download_response.bin"));
+        assertThat(progress.get()).isEqualTo(412L);
+    }
+
+    @Test
+    public void downloadToChannelDigestMismatch() {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/apps/test-application-id/download")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/apps/GET_{id}_download_response.bin")
+                .build())
+            .build());
+
+        this.applications
+            .download(DownloadApplicationRequest.builder()
+                .applicationId("test-application-id")
+                .build(), ChannelDownload.builder()
+                .channel(Channels.newChannel(new ByteArrayOutputStream()))
+                .digestAlgorithm("SHA-1")
+                .expectedDigest("0000000000000000000000000000000000000000")
+                .build())
+            .as(StepVerifier::create)
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void downloadDroplet() {
         mockRequest(InteractionContext.builder()
@@ -571,6 +645,36 @@ public final class ReactorApplicationsV2Test extends AbstractClientApiTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void listResources() {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/apps?q=name%20IN%20test-name&page=-1")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/apps/GET_apps_response.json")
+                .build())
+            .build());
+
+        this.applications
+            .listResources(ListApplicationsRequest.builder()
+                .name("test-name")
+                .page(-1)
+                .build())
+            .as(StepVerifier::create)
+            .consumeNextWith(tuple -> {
+                assertThat(tuple.getT1()).isEqualTo(ListApplicationsResponse.builder()
+                    .totalResults(3)
+                    .totalPages(1)
+                    .build());
+                assertThat(tuple.getT2().getMetadata().getId()).isEqualTo("3d294ed0-105c-4ccd-8f79-5605d6b7198c");
+            })
+            .expectNextCount(2)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void listRoutes() {
         mockRequest(InteractionContext.builder()
@@ -1017,4 +1121,201 @@ public final class ReactorApplicationsV2Test extends AbstractClientApiTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void uploadBits() throws IOException {
+        byte[] bits = Files.readAllBytes(new ClassPathResource("fixtures/client/v2/apps/test-application.zip").getFile().toPath());
+
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(PUT).path("/v2/apps/test-application-id/bits")
+                .contents(consumer((headers, body) -> {
+                    assertThat(headers.get("Transfer-Encoding")).isEqualTo("chunked");
+                    assertThat(headers.get("Content-Length")).isNull();
+                    assertThat(body.readString(StandardCharsets.ISO_8859_1))
+                        .contains("content-disposition: form-data; name=\"application\"; filename=\"application.zip\"\r\n" +
+                            "content-type: application/zip\r\n")
+                        .contains("test-content\n");
+                }))
+                .build())
+            .response(TestResponse.builder()
+                .status(CREATED)
+                .payload("fixtures/client/v2/apps/PUT_{id}_bits_response.json")
+                .build())
+            .build());
+
+        this.applications
+            .upload(UploadApplicationRequest.builder()
+                .applicationBits(Flux.just(Arrays.copyOfRange(bits, 0, 5), Arrays.copyOfRange(bits, 5, bits.length)))
+                .applicationId("test-application-id")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(UploadApplicationResponse.builder()
+                .entity(JobEntity.builder()
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .status("queued")
+                    .build())
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:33Z")
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .url("/v2/jobs/eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void uploadBitsChunkedUploadsDisabled() throws IOException {
+        byte[] bits = Files.readAllBytes(new ClassPathResource("fixtures/client/v2/apps/test-application.zip").getFile().toPath());
+
+        ConnectionContext connectionContext = DefaultConnectionContext.builder()
+            .apiHost("localhost")
+            .chunkedUploads(false)
+            .httpClient(HttpClient.create())
+            .build();
+
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(PUT).path("/v2/apps/test-application-id/bits")
+                .contents(consumer((headers, body) -> {
+                    assertThat(headers.get("Transfer-Encoding")).isEqualTo("chunked");
+                    assertThat(headers.get("Content-Length")).isNull();
+                    assertThat(body.readString(StandardCharsets.ISO_8859_1))
+                        .contains("content-disposition: form-data; name=\"application\"; filename=\"application.zip\"\r\n" +
+                            "content-type: application/zip\r\n")
+                        .contains("test-content\n");
+                }))
+                .build())
+            .response(TestResponse.builder()
+                .status(CREATED)
+                .payload("fixtures/client/v2/apps/PUT_{id}_bits_response.json")
+                .build())
+            .build());
+
+        new ReactorApplicationsV2(connectionContext, this.root, TOKEN_PROVIDER)
+            .upload(UploadApplicationRequest.builder()
+                .applicationBits(Flux.just(Arrays.copyOfRange(bits, 0, 5), Arrays.copyOfRange(bits, 5, bits.length)))
+                .applicationId("test-application-id")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(UploadApplicationResponse.builder()
+                .entity(JobEntity.builder()
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .status("queued")
+                    .build())
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:33Z")
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .url("/v2/jobs/eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void uploadDirectory() throws IOException {
+        Path application = Files.createTempDirectory("test-application");
+        Files.write(application.resolve("test-file"), "test-content\n".getBytes(StandardCharsets.UTF_8));
+
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(PUT).path("/v2/apps/test-application-id/bits")
+                .contents(consumer((headers, body) -> {
+                    String boundary = extractBoundary(headers);
+
+                    assertThat(headers.get("Transfer-Encoding")).isEqualTo("chunked");
+                    assertThat(headers.get("Content-Length")).isNull();
+                    assertThat(body.readString(StandardCharsets.ISO_8859_1))
+                        .startsWith("--" + boundary + "\r\n" +
+                            "content-disposition: form-data; name=\"resources\"\r\n" +
+                            "content-type: application/json\r\n" +
+                            "\r\n" +
+                            "[]" +
+                            "\r\n" + "--" + boundary + "\r\n" +
+                            "content-disposition: form-data; name=\"application\"; filename=\"application.zip\"\r\n" +
+                            "content-type: application/zip\r\n" +
+                            "\r\n" +
+                            "PK\u0003\u0004")
+                        .contains("test-file")
+                        .endsWith("\r\n" + "--" + boundary + "--\r\n");
+                }))
+                .build())
+            .response(TestResponse.builder()
+                .status(CREATED)
+                .payload("fixtures/client/v2/apps/PUT_{id}_bits_response.json")
+                .build())
+            .build());
+
+        this.applications
+            .upload(UploadApplicationRequest.builder()
+                .application(application)
+                .applicationId("test-application-id")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(UploadApplicationResponse.builder()
+                .entity(JobEntity.builder()
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .status("queued")
+                    .build())
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:33Z")
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .url("/v2/jobs/eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void uploadDirectoryStaged() throws IOException {
+        Path application = Files.createTempDirectory("test-application");
+        Files.write(application.resolve("test-file"), "test-content\n".getBytes(StandardCharsets.UTF_8));
+
+        ConnectionContext connectionContext = DefaultConnectionContext.builder()
+            .apiHost("localhost")
+            .chunkedUploads(false)
+            .httpClient(HttpClient.create())
+            .build();
+
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(PUT).path("/v2/apps/test-application-id/bits")
+                .contents(consumer((headers, body) -> {
+                    assertThat(headers.get("Transfer-Encoding")).isNull();
+                    assertThat(headers.get("Content-Length")).isEqualTo(String.valueOf(body.size()));
+                    assertThat(body.readString(StandardCharsets.ISO_8859_1))
+                        .contains("content-disposition: form-data; name=\"application\"; filename=\"application.zip\"\r\n")
+                        .contains("PK\u0003\u0004")
+                        .contains("test-file");
+                }))
+                .build())
+            .response(TestResponse.builder()
+                .status(CREATED)
+                .payload("fixtures/client/v2/apps/PUT_{id}_bits_response.json")
+                .build())
+            .build());
+
+        new ReactorApplicationsV2(connectionContext, this.root, TOKEN_PROVIDER)
+            .upload(UploadApplicationRequest.builder()
+                .application(application)
+                .applicationId("test-application-id")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(UploadApplicationResponse.builder()
+                .entity(JobEntity.builder()
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .status("queued")
+                    .build())
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:33Z")
+                    .id("eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .url("/v2/jobs/eff6a47e-67a1-4e3b-99a5-4f9bcab7620a")
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.EventType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EnvelopeFilterTest {
+
+    private final ByteBuf payload = Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+        .deployment("test-deployment")
+        .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ValueMetric)
+        .origin("test-origin")
+        .timestamp(1L)
+        .valueMetric(new org.cloudfoundry.dropsonde.events.ValueMetric.Builder()
+            .name("test-name")
+            .unit("test-unit")
+            .value(1.0)
+            .build())
+        .build()));
+
+    @Test
+    public void eventType() {
+        assertThat(EnvelopeFilter.of(Arrays.asList(EventType.LOG_MESSAGE, EventType.VALUE_METRIC), null).get().test(this.payload)).isTrue();
+        assertThat(EnvelopeFilter.of(Collections.singletonList(EventType.LOG_MESSAGE), null).get().test(this.payload)).isFalse();
+    }
+
+    @Test
+    public void eventTypeAndOrigin() {
+        assertThat(EnvelopeFilter.of(Collections.singletonList(EventType.VALUE_METRIC), Collections.singletonList("test-origin")).get().test(this.payload)).isTrue();
+        assertThat(EnvelopeFilter.of(Collections.singletonList(EventType.VALUE_METRIC), Collections.singletonList("other-origin")).get().test(this.payload)).isFalse();
+    }
+
+    @Test
+    public void none() {
+        assertThat(EnvelopeFilter.of(null, Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void origin() {
+        assertThat(EnvelopeFilter.of(null, Arrays.asList("other-origin", "test-origin")).get().test(this.payload)).isTrue();
+        assertThat(EnvelopeFilter.of(null, Collections.singletonList("test-origi")).get().test(this.payload)).isFalse();
+    }
+
+    @Test
+    public void readerIndexUnchanged() {
+        EnvelopeFilter.of(Collections.singletonList(EventType.VALUE_METRIC), Collections.singletonList("test-origin")).get().test(this.payload);
+
+        assertThat(this.payload.readerIndex()).isZero();
+    }
+
+}
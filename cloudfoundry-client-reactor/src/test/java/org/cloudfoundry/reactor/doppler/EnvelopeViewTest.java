@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.ValueMetric;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EnvelopeViewTest {
+
+    private final org.cloudfoundry.dropsonde.events.Envelope dropsonde = new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+        .deployment("test-deployment")
+        .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ValueMetric)
+        .origin("test-origin")
+        .timestamp(1L)
+        .valueMetric(new org.cloudfoundry.dropsonde.events.ValueMetric.Builder()
+            .name("test-name")
+            .unit("test-unit")
+            .value(1.0)
+            .build())
+        .build();
+
+    @Test
+    public void envelope() {
+        EnvelopeView view = new EnvelopeView(Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(this.dropsonde)));
+
+        assertThat(view.getEnvelope()).isEqualTo(Envelope.builder()
+            .deployment("test-deployment")
+            .eventType(EventType.VALUE_METRIC)
+            .origin("test-origin")
+            .timestamp(1L)
+            .valueMetric(ValueMetric.builder()
+                .name("test-name")
+                .unit("test-unit")
+                .value(1.0)
+                .build())
+            .build());
+    }
+
+    @Test
+    public void eventTypeAndOrigin() {
+        EnvelopeView view = new EnvelopeView(Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(this.dropsonde)));
+
+        assertThat(view.getEventType()).isEqualTo(EventType.VALUE_METRIC);
+        assertThat(view.getOrigin()).isEqualTo("test-origin");
+    }
+
+    @Test
+    public void eventTypeUnknown() {
+        byte[] payload = new byte[]{0x0A, 0x04, 't', 'e', 's', 't', 0x10, 0x63};
+        EnvelopeView view = new EnvelopeView(Unpooled.wrappedBuffer(payload));
+
+        assertThat(view.getEventType()).isNull();
+        assertThat(view.getOrigin()).isEqualTo("test");
+    }
+
+    @Test
+    public void toEnvelope() {
+        assertThat(ReactorDopplerEndpoints.toEnvelope(Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(this.dropsonde))))
+            .isEqualTo(new EnvelopeView(Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(this.dropsonde))).getEnvelope());
+    }
+
+}
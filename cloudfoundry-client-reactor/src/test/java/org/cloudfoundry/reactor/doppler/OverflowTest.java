@@ -0,0 +1,189 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.OverflowStrategy;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class OverflowTest {
+
+    private final OverflowMetrics metrics = new StreamMetrics().overflow("test-subscription-id");
+
+    @Test
+    public void buffer() {
+        StepVerifier.create(Flux.just("alpha", "bravo", "charlie")
+            .transform(overflow(OverflowStrategy.BUFFER, 2)), 0)
+            .thenRequest(2)
+            .expectNext("alpha", "bravo")
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metrics.getDropped(EventType.LOG_MESSAGE)).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelled() {
+        AtomicReference<Subscriber<? super String>> upstream = new AtomicReference<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        Flux<String> source = Flux.from(s -> {
+            upstream.set(s);
+            s.onSubscribe(new Subscription() {
+
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public void request(long n) {
+                }
+
+            });
+        });
+
+        Flux.from(overflow(OverflowStrategy.DROP_NEWEST, 1).apply(source))
+            .subscribe(new Subscriber<String>() {
+
+                @Override
+                public void onComplete() {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onNext(String s) {
+                }
+
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription.set(s);
+                }
+
+            });
+
+        subscription.get().cancel();
+        upstream.get().onNext("alpha");
+        upstream.get().onNext("bravo");
+
+        assertThat(this.metrics.getDropped()).isZero();
+    }
+
+    @Test
+    public void dropNewest() {
+        StepVerifier.create(Flux.just("alpha", "bravo", "charlie")
+            .transform(overflow(OverflowStrategy.DROP_NEWEST, 2)), 0)
+            .thenRequest(3)
+            .expectNext("alpha", "bravo")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metrics.getDropped(EventType.LOG_MESSAGE)).isEqualTo(1);
+    }
+
+    @Test
+    public void dropOldest() {
+        StepVerifier.create(Flux.just("alpha", "bravo", "charlie")
+            .transform(overflow(OverflowStrategy.DROP_OLDEST, 2)), 0)
+            .thenRequest(3)
+            .expectNext("bravo", "charlie")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metrics.getDropped(EventType.LOG_MESSAGE)).isEqualTo(1);
+    }
+
+    @Test
+    public void latestPerKey() {
+        StepVerifier.create(Flux.just("alpha-1", "bravo-1", "alpha-2", "charlie-1")
+            .transform(overflow(OverflowStrategy.LATEST_PER_KEY, 2)), 0)
+            .thenRequest(4)
+            .expectNext("alpha-2", "bravo-1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metrics.getDropped()).isEqualTo(2);
+    }
+
+    @Test
+    public void requestNotPositive() {
+        List<Object> signals = new CopyOnWriteArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        Flux.from(overflow(OverflowStrategy.BUFFER, 2).apply(Flux.just("alpha", "bravo")))
+            .subscribe(new Subscriber<String>() {
+
+                @Override
+                public void onComplete() {
+                    signals.add("complete");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    signals.add(t);
+                }
+
+                @Override
+                public void onNext(String s) {
+                    signals.add(s);
+                }
+
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription.set(s);
+                }
+
+            });
+
+        subscription.get().request(0);
+        subscription.get().request(1);
+
+        assertThat(signals).hasSize(1);
+        assertThat(signals.get(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void unbounded() {
+        StepVerifier.create(Flux.just("alpha", "bravo", "charlie")
+            .transform(overflow(OverflowStrategy.DROP_NEWEST, 2)))
+            .expectNext("alpha", "bravo", "charlie")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metrics.getDropped()).isZero();
+    }
+
+    private Function<Flux<String>, Publisher<String>> overflow(OverflowStrategy strategy, int bufferSize) {
+        return Overflow.overflow(strategy, bufferSize, value -> EventType.LOG_MESSAGE, value -> value.split("-")[0], this.metrics);
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.UnknownCloudFoundryException;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ReconnectionTest {
+
+    private final ReconnectPolicy policy = ReconnectPolicy.builder()
+        .jitter(0)
+        .maximumDelay(Duration.ofSeconds(4))
+        .minimumDelay(Duration.ofSeconds(1))
+        .build();
+
+    @Test
+    public void connections() {
+        AtomicInteger connections = new AtomicInteger();
+        StreamMetrics streamMetrics = new StreamMetrics();
+
+        StepVerifier.withVirtualTime(() -> Reconnection.connections("test-connection", 3, () -> {
+            int connection = connections.incrementAndGet();
+            Flux<String> envelopes = Flux.just("test-envelope-" + connection);
+
+            return connection == 1 ? envelopes.concatWith(Flux.error(new IllegalStateException())) : envelopes.concatWith(Flux.never());
+        }, Function.identity(), Optional.of(this.policy), streamMetrics))
+            .expectNext("test-envelope-1", "test-envelope-2", "test-envelope-3")
+            .then(() -> assertThat(streamMetrics.getConnection("test-connection/0").map(ConnectionMetrics::isConnected)).contains(false))
+            .then(() -> assertThat(streamMetrics.getConnection("test-connection/1").map(ConnectionMetrics::isConnected)).contains(true))
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext("test-envelope-4")
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void connectionsWithoutPolicy() {
+        AtomicInteger connections = new AtomicInteger();
+
+        StepVerifier.create(Reconnection.connections("test-connection", 3, () -> connections.incrementAndGet() == 2 ? Flux.<String>error(new IllegalStateException()) : Flux.never(),
+            Function.identity(), Optional.empty(), new StreamMetrics()))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getDelay() {
+        assertThat(Reconnection.getDelay(this.policy, 0)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(Reconnection.getDelay(this.policy, 1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(Reconnection.getDelay(this.policy, 2)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(Reconnection.getDelay(this.policy, 100)).isEqualTo(Duration.ofSeconds(4));
+    }
+
+    @Test
+    public void getDelayJitter() {
+        ReconnectPolicy policy = ReconnectPolicy.builder()
+            .jitter(0.5)
+            .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(Reconnection.getDelay(policy, 0).toMillis()).isBetween(500L, 1000L);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidJitter() {
+        ReconnectPolicy.builder()
+            .jitter(2)
+            .build();
+    }
+
+    @Test
+    public void reconnecting() {
+        AtomicInteger connections = new AtomicInteger();
+        StreamMetrics streamMetrics = new StreamMetrics();
+
+        StepVerifier.withVirtualTime(() -> Reconnection.reconnecting("test-connection", () -> connections.getAndIncrement() == 0 ?
+            Flux.just("test-envelope-1").concatWith(Flux.error(new IllegalStateException())) : Flux.just("test-envelope-2").concatWith(Flux.never()), this.policy, streamMetrics))
+            .expectNext("test-envelope-1")
+            .then(() -> assertThat(getConnection(streamMetrics).isConnected()).isFalse())
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext("test-envelope-2")
+            .then(() -> {
+                ConnectionMetrics metrics = getConnection(streamMetrics);
+
+                assertThat(metrics.getMessages()).isEqualTo(2);
+                assertThat(metrics.getReconnects()).isEqualTo(1);
+                assertThat(metrics.isConnected()).isTrue();
+            })
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(2);
+        assertThat(streamMetrics.getConnections()).isEmpty();
+    }
+
+    @Test
+    public void reconnectingConcurrent() {
+        StreamMetrics streamMetrics = new StreamMetrics();
+        Flux<String> connection = Reconnection.reconnecting("test-connection", () -> Flux.just("test-envelope").concatWith(Flux.never()), this.policy, streamMetrics);
+
+        StepVerifier.create(connection.mergeWith(connection))
+            .expectNext("test-envelope", "test-envelope")
+            .then(() -> assertThat(streamMetrics.getConnections()).containsOnlyKeys("test-connection", "test-connection#2"))
+            .then(() -> assertThat(getConnection(streamMetrics).getMessages()).isEqualTo(1))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(streamMetrics.getConnections()).isEmpty();
+    }
+
+    @Test
+    public void reconnectingDecodeError() {
+        AtomicInteger connections = new AtomicInteger();
+
+        StepVerifier.create(Reconnection.connection("test-connection", () -> {
+            connections.incrementAndGet();
+            return Flux.just("test-envelope").concatWith(Flux.never());
+        }, envelope -> {
+            throw new IllegalArgumentException("test-decode-error");
+        }, Optional.of(this.policy), new StreamMetrics()))
+            .expectError(IllegalArgumentException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconnectingIdle() {
+        AtomicInteger connections = new AtomicInteger();
+        StreamMetrics streamMetrics = new StreamMetrics();
+        ReconnectPolicy policy = ReconnectPolicy.builder()
+            .from(this.policy)
+            .idleTimeout(Duration.ofSeconds(10))
+            .build();
+
+        StepVerifier.withVirtualTime(() -> Reconnection.reconnecting("test-connection", () -> Flux.just("test-envelope-" + connections.incrementAndGet()).concatWith(Flux.never()), policy,
+            streamMetrics))
+            .expectNext("test-envelope-1")
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(11)))
+            .expectNext("test-envelope-2")
+            .then(() -> assertThat(getConnection(streamMetrics).getReconnects()).isEqualTo(1))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void reconnectingNotTransient() {
+        AtomicInteger connections = new AtomicInteger();
+        StreamMetrics streamMetrics = new StreamMetrics();
+
+        StepVerifier.create(Reconnection.reconnecting("test-connection", () -> {
+            connections.incrementAndGet();
+            return Flux.<String>error(new UnknownCloudFoundryException(401, "test-payload"));
+        }, this.policy, streamMetrics))
+            .expectError(UnknownCloudFoundryException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(1);
+        assertThat(streamMetrics.getConnections()).isEmpty();
+    }
+
+    @Test
+    public void reconnectingResetsDelay() {
+        AtomicInteger connections = new AtomicInteger();
+        StreamMetrics streamMetrics = new StreamMetrics();
+
+        StepVerifier.withVirtualTime(() -> Reconnection.reconnecting("test-connection", () -> {
+            switch (connections.incrementAndGet()) {
+                case 1:
+                case 2:
+                    return Flux.error(new IllegalStateException());
+                case 3:
+                    return Flux.just("test-envelope-1").concatWith(Flux.error(new IllegalStateException()));
+                default:
+                    return Flux.just("test-envelope-2").concatWith(Flux.never());
+            }
+        }, this.policy, streamMetrics))
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(3)))
+            .expectNext("test-envelope-1")
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext("test-envelope-2")
+            .then(() -> assertThat(getConnection(streamMetrics).getReconnects()).isEqualTo(3))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(connections.get()).isEqualTo(4);
+    }
+
+    private static ConnectionMetrics getConnection(StreamMetrics streamMetrics) {
+        return streamMetrics.getConnection("test-connection")
+            .orElseThrow(() -> new IllegalStateException("test-connection is not open"));
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public final class SpillJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void appendAndPoll() throws IOException {
+        SpillJournal journal = new SpillJournal(this.folder.getRoot().toPath(), 32, Long.MAX_VALUE, false, payload -> {
+        });
+
+        assertThat(journal.poll()).isNull();
+
+        journal.append(payload("test-payload-1"));
+        journal.append(payload("test-payload-2"));
+        journal.append(payload("test-payload-3"));
+
+        assertThat(segments(journal.getDirectory())).isEqualTo(3);
+
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-1");
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-2");
+        assertThat(segments(journal.getDirectory())).isEqualTo(2);
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-3");
+        assertThat(journal.poll()).isNull();
+        assertThat(journal.isEmpty()).isTrue();
+
+        journal.close();
+        assertThat(Files.exists(journal.getDirectory())).isFalse();
+    }
+
+    @Test
+    public void appendDropWhenFull() throws IOException {
+        List<String> dropped = new CopyOnWriteArrayList<>();
+        SpillJournal journal = new SpillJournal(this.folder.getRoot().toPath(), 32, 44, true, payload -> dropped.add(decode(payload)));
+
+        assertThat(journal.append(payload("test-payload-1"))).isEqualTo(1);
+        assertThat(journal.append(payload("test-payload-2"))).isEqualTo(2);
+        assertThat(journal.append(payload("test-payload-3"))).isEqualTo(2);
+        assertThat(dropped).containsExactly("test-payload-3");
+
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-1");
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-2");
+
+        assertThat(journal.append(payload("test-payload-4"))).isEqualTo(3);
+        assertThat(decode(journal.poll())).isEqualTo("test-payload-4");
+        assertThat(dropped).containsExactly("test-payload-3");
+
+        journal.close();
+    }
+
+    @Test
+    public void appendWhenFull() throws IOException {
+        SpillJournal journal = new SpillJournal(this.folder.getRoot().toPath(), 32, 44, false, payload -> {
+        });
+
+        journal.append(payload("test-payload-1"));
+        journal.append(payload("test-payload-2"));
+
+        try {
+            journal.append(payload("test-payload-3"));
+            fail("Expected overflow");
+        } catch (IllegalStateException e) {
+            assertThat(Exceptions.isOverflow(e)).isTrue();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidMaximumSize() {
+        SpillPolicy.builder()
+            .directory(this.folder.getRoot().toPath())
+            .maximumSize(1024L)
+            .segmentSize(64 * 1024)
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidSegmentSize() {
+        SpillPolicy.builder()
+            .directory(this.folder.getRoot().toPath())
+            .segmentSize(1)
+            .build();
+    }
+
+    @Test
+    public void spill() throws IOException {
+        SpillPolicy policy = SpillPolicy.builder()
+            .directory(this.folder.getRoot().toPath())
+            .segmentSize(64 * 1024)
+            .build();
+
+        StepVerifier.create(SpillJournal.spill(policy, journal -> Flux.just("test-payload-1", "test-payload-2", "test-payload-3")
+            .map(SpillJournalTest::payload)
+            .map(journal::append), SpillJournalTest::decode, payload -> {
+        }), 0)
+            .thenRequest(1)
+            .expectNext("test-payload-1")
+            .thenRequest(2)
+            .expectNext("test-payload-2", "test-payload-3")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        try (Stream<Path> journals = Files.list(this.folder.getRoot().toPath())) {
+            assertThat(journals.count()).isZero();
+        }
+    }
+
+    @Test
+    public void spillError() {
+        SpillPolicy policy = SpillPolicy.builder()
+            .directory(this.folder.getRoot().toPath())
+            .segmentSize(64 * 1024)
+            .build();
+
+        StepVerifier.create(SpillJournal.spill(policy, journal -> Flux.just("test-payload-1")
+            .map(SpillJournalTest::payload)
+            .map(journal::append)
+            .concatWith(Flux.error(new IllegalStateException())), SpillJournalTest::decode, payload -> {
+        }), 0)
+            .thenRequest(1)
+            .expectNext("test-payload-1")
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void spillRequestNotPositive() throws IOException {
+        SpillPolicy policy = SpillPolicy.builder()
+            .directory(this.folder.getRoot().toPath())
+            .segmentSize(64 * 1024)
+            .build();
+
+        List<Object> signals = new CopyOnWriteArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        SpillJournal.spill(policy, journal -> Flux.just("test-payload-1", "test-payload-2")
+            .map(SpillJournalTest::payload)
+            .map(journal::append), SpillJournalTest::decode, payload -> {
+        })
+            .subscribe(new Subscriber<String>() {
+
+                @Override
+                public void onComplete() {
+                    signals.add("complete");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    signals.add(t);
+                }
+
+                @Override
+                public void onNext(String s) {
+                    signals.add(s);
+                }
+
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription.set(s);
+                }
+
+            });
+
+        subscription.get().request(0);
+        subscription.get().request(1);
+
+        assertThat(signals).hasSize(1);
+        assertThat(signals.get(0)).isInstanceOf(IllegalArgumentException.class);
+
+        try (Stream<Path> journals = Files.list(this.folder.getRoot().toPath())) {
+            assertThat(journals.count()).isZero();
+        }
+    }
+
+    private static String decode(ByteBuf payload) {
+        return payload.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuf payload(String value) {
+        return Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long segments(Path directory) throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.count();
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.HttpExchangeListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class AbstractUaaTokenProviderTest {
+
+    private final ConnectionContext connectionContext = mock(ConnectionContext.class, RETURNS_SMART_NULLS);
+
+    private final AtomicReference<Duration> expiresIn = new AtomicReference<>();
+
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+        .clientId("test-client-id")
+        .clientSecret("test-client-secret")
+        .build();
+
+    @Test
+    public void backgroundRefresh() throws InterruptedException {
+        this.expiresIn.set(Duration.ofSeconds(4));
+
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .backgroundRefresh(true)
+            .clientId("test-client-id")
+            .clientSecret("test-client-secret")
+            .refreshMargin(Duration.ofSeconds(2))
+            .build();
+
+        tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (this.requests.get() < 2 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+
+        assertThat(this.requests.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void backgroundRefreshDisabled() throws InterruptedException {
+        this.expiresIn.set(Duration.ofSeconds(4));
+
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .clientId("test-client-id")
+            .clientSecret("test-client-secret")
+            .refreshMargin(Duration.ofSeconds(2))
+            .build();
+
+        tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+        Thread.sleep(1_500);
+
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void backgroundRefreshShortLifetime() throws InterruptedException {
+        this.expiresIn.set(Duration.ofSeconds(4));
+
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .backgroundRefresh(true)
+            .clientId("test-client-id")
+            .clientSecret("test-client-secret")
+            .build();
+
+        tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (this.requests.get() < 2 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+
+        assertThat(this.requests.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void failure() {
+        this.failing.set(true);
+
+        this.tokenProvider
+            .getToken(this.connectionContext)
+            .as(StepVerifier::create)
+            .expectError()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.tokenProvider.getRefreshFailures()).isEqualTo(1);
+
+        this.failing.set(false);
+
+        this.tokenProvider
+            .getToken(this.connectionContext)
+            .as(StepVerifier::create)
+            .expectNext("bearer test-access-token-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getLastRefreshLatency() {
+        assertThat(this.tokenProvider.getLastRefreshLatency()).isEmpty();
+
+        this.tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+
+        assertThat(this.tokenProvider.getLastRefreshLatency()).hasValueSatisfying(latency -> assertThat(latency.isNegative()).isFalse());
+        assertThat(this.tokenProvider.getRefreshFailures()).isEqualTo(0);
+    }
+
+    @Test
+    public void getToken() {
+        Flux.range(0, 10)
+            .flatMap(i -> this.tokenProvider.getToken(this.connectionContext))
+            .distinct()
+            .as(StepVerifier::create)
+            .expectNext("bearer test-access-token-1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getTokenShortLifetime() {
+        this.expiresIn.set(Duration.ofSeconds(10));
+
+        for (int i = 0; i < 10; i++) {
+            this.tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+        }
+
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateConcurrent() {
+        this.tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 10; i++) {
+            this.tokenProvider.invalidate(this.connectionContext, "bearer test-access-token-1");
+        }
+
+        Flux.range(0, 10)
+            .flatMap(i -> this.tokenProvider.getToken(this.connectionContext))
+            .distinct()
+            .as(StepVerifier::create)
+            .expectNext("bearer test-access-token-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateStale() {
+        this.tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+        this.tokenProvider.invalidate(this.connectionContext, "bearer test-access-token-1");
+        this.tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5));
+
+        this.tokenProvider.invalidate(this.connectionContext, "bearer test-access-token-1");
+
+        this.tokenProvider
+            .getToken(this.connectionContext)
+            .as(StepVerifier::create)
+            .expectNext("bearer test-access-token-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.requests.get()).isEqualTo(2);
+    }
+
+    @Before
+    public void mockConnectionContext() {
+        this.mockWebServer.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                int count = AbstractUaaTokenProviderTest.this.requests.incrementAndGet();
+
+                if (AbstractUaaTokenProviderTest.this.failing.get()) {
+                    return new MockResponse()
+                        .setResponseCode(500)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"error\":\"server_error\",\"error_description\":\"test-error-description\"}");
+                }
+
+                return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(String.format("{\"access_token\":\"%s\",\"token_type\":\"bearer\"}", accessToken(count)));
+            }
+
+        });
+
+        String root = String.format("http://%s:%d", this.mockWebServer.getHostName(), this.mockWebServer.getPort());
+
+        when(this.connectionContext.getHttpClient()).thenReturn(HttpClient.create());
+        when(this.connectionContext.getHttpExchangeListener()).thenReturn(HttpExchangeListener.NONE);
+        when(this.connectionContext.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(this.connectionContext.getRoot("authorization_endpoint")).thenReturn(Mono.just(root));
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+    private String accessToken(int count) {
+        Duration expiresIn = this.expiresIn.get();
+
+        if (expiresIn == null) {
+            return String.format("test-access-token-%d", count);
+        }
+
+        return Jwts.builder()
+            .setId(String.format("test-access-token-%d", count))
+            .setExpiration(Date.from(Instant.now().plus(expiresIn)))
+            .compact();
+    }
+
+}
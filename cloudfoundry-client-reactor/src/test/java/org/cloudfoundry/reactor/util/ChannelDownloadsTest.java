@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ChannelDownloadsTest {
+
+    @Test
+    public void write() {
+        ByteBuf first = Unpooled.copiedBuffer("test-", StandardCharsets.UTF_8);
+        ByteBuf second = Unpooled.copiedBuffer("content", StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+
+        ChannelDownloads
+            .write(Flux.just(first, second), ChannelDownload.builder()
+                .channel(Channels.newChannel(out))
+                .progressListener(bytes -> listenerThread.set(Thread.currentThread()))
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(ChannelDownloadResult.builder()
+                .bytes(12L)
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("test-content");
+        assertThat(listenerThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(first.refCnt()).isEqualTo(1);
+        assertThat(second.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    public void writeError() {
+        ByteBuf first = Unpooled.copiedBuffer("test-", StandardCharsets.UTF_8);
+        ByteBuf second = Unpooled.copiedBuffer("content", StandardCharsets.UTF_8);
+
+        ChannelDownloads
+            .write(Flux.just(first, second), ChannelDownload.builder()
+                .channel(new FailingChannel())
+                .build())
+            .as(StepVerifier::create)
+            .consumeErrorWith(t -> assertThat(t).hasMessageContaining("test-failure"))
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(first.refCnt()).isEqualTo(1);
+        assertThat(second.refCnt()).isEqualTo(1);
+    }
+
+    private static final class FailingChannel implements WritableByteChannel {
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            throw new IOException("test-failure");
+        }
+
+    }
+
+}
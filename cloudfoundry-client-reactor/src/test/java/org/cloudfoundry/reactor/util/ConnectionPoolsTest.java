@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.Future;
+import org.cloudfoundry.reactor.ConnectionPoolConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ConnectionPoolsTest {
+
+    private final LocalAddress address = new LocalAddress("test-address");
+
+    private final EventLoopGroup group = new DefaultEventLoopGroup(1);
+
+    private final String host = this.address.toString();
+
+    private Channel server;
+
+    @Test
+    public void idleClosed() throws InterruptedException {
+        ConnectionPools connectionPools = new ConnectionPools(ConnectionPoolConfiguration.builder().maxConnections(1).build(), Collections.emptyMap());
+        ChannelPool pool = selectOrCreate(connectionPools);
+
+        Channel channel = pool.acquire().sync().getNow();
+        pool.release(channel).sync();
+        assertThat(connectionPools.getIdle(this.host)).isEqualTo(1);
+
+        channel.close().sync();
+        assertThat(connectionPools.getIdle(this.host)).isEqualTo(0);
+
+        connectionPools.dispose();
+    }
+
+    @Test
+    public void maxLifetime() throws InterruptedException {
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder()
+            .maxLifetime(Duration.ZERO)
+            .build();
+        ConnectionPools connectionPools = new ConnectionPools(ConnectionPoolConfiguration.builder().maxConnections(1).build(), Collections.singletonMap(this.host, configuration));
+        ChannelPool pool = selectOrCreate(connectionPools);
+
+        Channel channel = pool.acquire().sync().getNow();
+        Thread.sleep(5);
+        pool.release(channel).sync();
+
+        assertThat(connectionPools.getIdle(this.host)).isEqualTo(0);
+        assertThat(pool.acquire().sync().getNow()).isNotSameAs(channel);
+
+        connectionPools.dispose();
+    }
+
+    @Test
+    public void metrics() throws InterruptedException {
+        ConnectionPools connectionPools = new ConnectionPools(ConnectionPoolConfiguration.builder().maxConnections(1).build(), Collections.emptyMap());
+        ChannelPool pool = selectOrCreate(connectionPools);
+
+        Channel channel = pool.acquire().sync().getNow();
+        assertThat(connectionPools.getActive(this.host)).isEqualTo(1);
+        assertThat(connectionPools.getIdle(this.host)).isEqualTo(0);
+
+        Future<Channel> pending = pool.acquire();
+        assertThat(connectionPools.getPendingAcquires(this.host)).isEqualTo(1);
+
+        pool.release(channel).sync();
+        assertThat(pending.sync().getNow()).isSameAs(channel);
+        assertThat(connectionPools.getPendingAcquires()).isEqualTo(0);
+
+        pool.release(channel).sync();
+        assertThat(connectionPools.getActive()).isEqualTo(0);
+        assertThat(connectionPools.getIdle()).isEqualTo(1);
+
+        connectionPools.dispose();
+    }
+
+    @Before
+    public void setUp() throws InterruptedException {
+        this.server = new ServerBootstrap()
+            .group(this.group)
+            .channel(LocalServerChannel.class)
+            .childHandler(new ChannelInboundHandlerAdapter())
+            .bind(this.address).sync().channel();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        this.server.close().sync();
+        this.group.shutdownGracefully().sync();
+    }
+
+    private ChannelPool selectOrCreate(ConnectionPools connectionPools) {
+        return connectionPools.selectOrCreate(this.address, () -> new Bootstrap().group(this.group).channel(LocalChannel.class), channel -> {
+        }, channel -> {
+        }, channel -> {
+        });
+    }
+
+}
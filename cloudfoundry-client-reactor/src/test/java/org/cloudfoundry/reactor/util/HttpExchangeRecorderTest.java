@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class HttpExchangeRecorderTest {
+
+    @Test
+    public void template() {
+        assertThat(HttpExchangeRecorder.template("https://api.test.host/v2/apps/3f2b1e5c-07a4-4d8e-9c1b-6a2f0e8d4b71/routes?page=2"))
+            .isEqualTo("/v2/apps/{id}/routes");
+    }
+
+    @Test
+    public void templateNoIdentifiers() {
+        assertThat(HttpExchangeRecorder.template("https://api.test.host/v2/info")).isEqualTo("/v2/info");
+    }
+
+    @Test
+    public void templateNumeric() {
+        assertThat(HttpExchangeRecorder.template("https://api.test.host/v2/apps/test-id/instances/0")).isEqualTo("/v2/apps/test-id/instances/{id}");
+    }
+
+}
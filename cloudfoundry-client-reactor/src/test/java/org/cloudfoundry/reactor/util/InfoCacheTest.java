@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class InfoCacheTest {
+
+    private static final String ROOT = "https://api.test.host";
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final Mono<Map<String, String>> loader = Mono.fromCallable(() -> Collections.singletonMap("count", String.valueOf(this.requests.incrementAndGet())));
+
+    @Test
+    public void get() {
+        InfoCache infoCache = new InfoCache();
+
+        infoCache.get(ROOT, this.loader)
+            .concatWith(infoCache.get(ROOT, this.loader))
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("1", "1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(infoCache.getMisses()).isEqualTo(1);
+        assertThat(infoCache.getHits()).isEqualTo(1);
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getError() {
+        InfoCache infoCache = new InfoCache();
+
+        infoCache.get(ROOT, Mono.error(new IllegalStateException()))
+            .as(StepVerifier::create)
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(1));
+
+        infoCache.get(ROOT, this.loader)
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(infoCache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void getSlow() {
+        InfoCache infoCache = new InfoCache(Duration.ofMillis(100));
+
+        infoCache.get(ROOT, Mono.delay(Duration.ofMillis(200)).then(this.loader))
+            .concatWith(infoCache.get(ROOT, this.loader))
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("1", "1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(infoCache.getHits()).isEqualTo(1);
+        assertThat(infoCache.getStaleHits()).isZero();
+    }
+
+    @Test
+    public void getStale() {
+        InfoCache infoCache = new InfoCache(Duration.ZERO);
+
+        infoCache.get(ROOT, this.loader)
+            .concatWith(infoCache.get(ROOT, this.loader))
+            .concatWith(infoCache.get(ROOT, this.loader))
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("1", "1", "2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(infoCache.getMisses()).isEqualTo(1);
+        assertThat(infoCache.getStaleHits()).isEqualTo(2);
+        assertThat(infoCache.getRefreshes()).isEqualTo(2);
+    }
+
+    @Test
+    public void getStaleUsesCallerLoader() {
+        InfoCache infoCache = new InfoCache(Duration.ZERO);
+        AtomicInteger otherRequests = new AtomicInteger();
+        Mono<Map<String, String>> otherLoader = Mono.fromCallable(() -> Collections.singletonMap("count", "other-" + otherRequests.incrementAndGet()));
+
+        infoCache.get(ROOT, this.loader)
+            .concatWith(infoCache.get(ROOT, otherLoader))
+            .concatWith(infoCache.get(ROOT, otherLoader))
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("1", "1", "other-1")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void refresh() {
+        InfoCache infoCache = new InfoCache();
+
+        infoCache.get(ROOT, this.loader)
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        infoCache.refresh(ROOT, this.loader);
+
+        infoCache.get(ROOT, this.loader)
+            .map(info -> info.get("count"))
+            .as(StepVerifier::create)
+            .expectNext("2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertThat(infoCache.getRefreshes()).isEqualTo(1);
+    }
+
+}
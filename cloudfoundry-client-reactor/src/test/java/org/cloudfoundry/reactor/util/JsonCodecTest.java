@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.ByteBufFlux;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class JsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClientResponse response = mock(HttpClientResponse.class, RETURNS_SMART_NULLS);
+
+    @Test
+    public void decode() throws IOException {
+        when(this.response.receive()).thenReturn(ByteBufFlux.fromPath(new ClassPathResource("fixtures/client/v2/info/GET_response.json").getFile().toPath()));
+
+        Mono.just(this.response)
+            .transform(JsonCodec.decode(this.objectMapper, Map.class))
+            .as(StepVerifier::create)
+            .consumeNextWith(map -> assertThat(map)
+                .containsEntry("name", "vcap")
+                .containsEntry("api_version", "2.44.0"))
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void decodeEmpty() {
+        when(this.response.receive()).thenReturn(ByteBufFlux.fromInbound(Mono.empty()));
+
+        Mono.just(this.response)
+            .transform(JsonCodec.decode(this.objectMapper, Map.class))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void decodeInvalid() throws IOException {
+        when(this.response.receive()).thenReturn(ByteBufFlux.fromPath(new ClassPathResource("fixtures/invalid_error_response.json").getFile().toPath()));
+
+        Mono.just(this.response)
+            .transform(JsonCodec.decode(this.objectMapper, Map.class))
+            .as(StepVerifier::create)
+            .consumeErrorWith(t -> assertThat(t)
+                .isInstanceOf(JsonParsingException.class)
+                .hasCauseInstanceOf(IOException.class))
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void decodeResources() throws IOException {
+        when(this.response.receive()).thenReturn(ByteBufFlux.fromPath(new ClassPathResource("fixtures/client/v2/apps/GET_apps_response.json").getFile().toPath()));
+
+        Mono.just(this.response)
+            .as(JsonCodec.decodeResources(this.objectMapper, Map.class, Map.class))
+            .as(StepVerifier::create)
+            .consumeNextWith(tuple -> {
+                assertThat(tuple.getT1())
+                    .containsEntry("total_results", 3)
+                    .doesNotContainKey("resources");
+                assertThat(((Map<?, ?>) tuple.getT2().get("metadata")).get("guid")).isEqualTo("3d294ed0-105c-4ccd-8f79-5605d6b7198c");
+            })
+            .expectNextCount(2)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void decodeResourcesMissing() throws IOException {
+        when(this.response.receive()).thenReturn(ByteBufFlux.fromPath(new ClassPathResource("fixtures/client/v2/info/GET_response.json").getFile().toPath()));
+
+        Mono.just(this.response)
+            .as(JsonCodec.decodeResources(this.objectMapper, Map.class, Map.class))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.nio.channels.WritableByteChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * Where to write downloaded bits, and how to check them as they are written
+ */
+@Value.Immutable
+abstract class _ChannelDownload {
+
+    @Value.Check
+    void check() {
+        if (getExpectedDigest() != null && getDigestAlgorithm() == null) {
+            throw new IllegalStateException("Cannot build ChannelDownload, digestAlgorithm must be set when expectedDigest is set");
+        }
+    }
+
+    /**
+     * The channel to write the bits to.  The channel is not closed once the bits have been written.
+     */
+    abstract WritableByteChannel getChannel();
+
+    /**
+     * The {@link java.security.MessageDigest} algorithm (e.g. {@code SHA-256}) to calculate over the bits as they are written
+     */
+    @Nullable
+    abstract String getDigestAlgorithm();
+
+    /**
+     * The digest, as a hex string, that the bits are expected to have.  The download fails if the calculated digest does not match.
+     */
+    @Nullable
+    abstract String getExpectedDigest();
+
+    /**
+     * Called with the total number of bytes written so far each time more bytes have been written
+     */
+    @Nullable
+    abstract LongConsumer getProgressListener();
+
+}
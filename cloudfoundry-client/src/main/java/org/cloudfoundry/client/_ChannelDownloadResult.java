@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+/**
+ * The outcome of writing downloaded bits to a channel
+ */
+@Value.Immutable
+abstract class _ChannelDownloadResult {
+
+    /**
+     * The number of bytes written
+     */
+    abstract Long getBytes();
+
+    /**
+     * The digest of the bits as a lower case hex string, if a digest algorithm was requested
+     */
+    @Nullable
+    abstract String getDigest();
+
+}
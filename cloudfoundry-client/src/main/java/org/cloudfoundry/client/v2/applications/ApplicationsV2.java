@@ -16,8 +16,11 @@
 
 package org.cloudfoundry.client.v2.applications;
 
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 /**
  * Main entry point to the Cloud Foundry Applications V2 Client API
@@ -65,6 +68,16 @@ public interface ApplicationsV2 {
      */
     Flux<byte[]> download(DownloadApplicationRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/downloads_the_bits_for_an_app.html">Downloads the bits for an App</a> request and writes the bits to a channel as they
+     * are received
+     *
+     * @param request  the Download Application request
+     * @param download where to write the bits
+     * @return the outcome of writing the bits
+     */
+    Mono<ChannelDownloadResult> download(DownloadApplicationRequest request, ChannelDownload download);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/downloads_the_staged_droplet_for_an_app.html">Downloads the staged droplet for an App</a> request
      *
@@ -73,6 +86,16 @@ public interface ApplicationsV2 {
      */
     Flux<byte[]> downloadDroplet(DownloadApplicationDropletRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/downloads_the_staged_droplet_for_an_app.html">Downloads the staged droplet for an App</a> request and writes the droplet
+     * to a channel as it is received
+     *
+     * @param request  the Download Droplet request
+     * @param download where to write the droplet
+     * @return the outcome of writing the droplet
+     */
+    Mono<ChannelDownloadResult> downloadDroplet(DownloadApplicationDropletRequest request, ChannelDownload download);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/get_the_env_for_an_app.html">Get the env for an App</a> request
      *
@@ -105,6 +128,14 @@ public interface ApplicationsV2 {
      */
     Mono<ListApplicationsResponse> list(ListApplicationsRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/list_all_apps.html">List all Apps</a> request, decoding each application as it is read from the response
+     *
+     * @param request the List Applications request
+     * @return each application of the requested page, paired with the page without its resources
+     */
+    Flux<Tuple2<ListApplicationsResponse, ApplicationResource>> listResources(ListApplicationsRequest request);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/list_all_routes_for_the_app.html">List all Routes for the Application</a> request
      *
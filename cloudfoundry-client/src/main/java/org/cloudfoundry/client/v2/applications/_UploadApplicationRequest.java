@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.cloudfoundry.Nullable;
 import org.cloudfoundry.QueryParameter;
 import org.immutables.value.Value;
+import reactor.core.publisher.Flux;
 
 import java.nio.file.Path;
 import java.util.List;
@@ -30,12 +31,28 @@ import java.util.List;
 @Value.Immutable
 abstract class _UploadApplicationRequest {
 
+    @Value.Check
+    void check() {
+        if ((getApplication() == null) == (getApplicationBits() == null)) {
+            throw new IllegalStateException("Cannot build UploadApplicationRequest, exactly one of application and applicationBits must be set");
+        }
+    }
+
     /**
-     * A binary zip file containing the application bits
+     * A binary zip file containing the application bits, or a directory whose contents are compressed as they are uploaded
      */
     @JsonIgnore
+    @Nullable
     abstract Path getApplication();
 
+    /**
+     * The contents of a binary zip file containing the application bits, sent as they are published.  Allows bits to be uploaded without being staged, for example directly from another
+     * foundation's download.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract Flux<byte[]> getApplicationBits();
+
     /**
      * The application id
      */
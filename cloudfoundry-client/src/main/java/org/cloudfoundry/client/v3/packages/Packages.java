@@ -16,6 +16,8 @@
 
 package org.cloudfoundry.client.v3.packages;
 
+import org.cloudfoundry.client.ChannelDownload;
+import org.cloudfoundry.client.ChannelDownloadResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -56,6 +58,16 @@ public interface Packages {
      */
     Flux<byte[]> download(DownloadPackageRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/packages_(experimental)/download_the_bits_for_a_package.html">Download the bits for a package</a> request and writes the
+     * bits to a channel as they are received
+     *
+     * @param request  the Download Package request
+     * @param download where to write the bits
+     * @return the outcome of writing the bits
+     */
+    Mono<ChannelDownloadResult> download(DownloadPackageRequest request, ChannelDownload download);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/packages_(experimental)/get_a_package.html">Get Package</a> request
      *
@@ -28,7 +28,7 @@ import java.nio.file.Path;
 abstract class _UploadPackageRequest {
 
     /**
-     * The bits
+     * The bits, either a binary zip file or a directory whose contents are compressed as they are uploaded
      */
     @JsonIgnore
     abstract Path getBits();
@@ -35,7 +35,13 @@ public enum EventType {
 
     VALUE_METRIC;
 
-    static EventType from(org.cloudfoundry.dropsonde.events.Envelope.EventType dropsonde) {
+    /**
+     * Converts a Dropsonde event type
+     *
+     * @param dropsonde the Dropsonde event type
+     * @return the event type
+     */
+    public static EventType from(org.cloudfoundry.dropsonde.events.Envelope.EventType dropsonde) {
         switch (Objects.requireNonNull(dropsonde, "dropsonde")) {
             case ContainerMetric:
                 return CONTAINER_METRIC;
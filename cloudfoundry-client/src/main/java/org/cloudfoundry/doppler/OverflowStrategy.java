@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+/**
+ * The strategies for handling envelopes that arrive faster than a firehose consumer requests them
+ */
+public enum OverflowStrategy {
+
+    /**
+     * Buffers envelopes up to the buffer size and fails the firehose once the buffer is full
+     */
+    BUFFER,
+
+    /**
+     * Buffers envelopes up to the buffer size and discards the arriving envelope once the buffer is full
+     */
+    DROP_NEWEST,
+
+    /**
+     * Buffers envelopes up to the buffer size and discards the oldest buffered envelope once the buffer is full
+     */
+    DROP_OLDEST,
+
+    /**
+     * Buffers only the latest envelope for each metric, replacing older envelopes for the same metric.  Metrics are identified by their origin, deployment, job, index, ip and name, or application
+     * id and instance index for container metrics.  Other envelopes are buffered individually and the arriving envelope is discarded once the buffer is full.
+     */
+    LATEST_PER_KEY
+
+}
@@ -17,14 +17,66 @@
 package org.cloudfoundry.doppler;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
+import java.util.List;
+
 /**
  * The request payload for the Firehose endpoint
  */
 @Value.Immutable
 abstract class _FirehoseRequest {
 
+    @Value.Check
+    void check() {
+        if (getBufferSize() != null && getBufferSize() < 1) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, buffer size must be at least 1");
+        }
+
+        if (getConnections() != null && getConnections() < 1) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, connections must be at least 1");
+        }
+    }
+
+    /**
+     * The maximum number of envelopes buffered for a slow consumer when an overflow strategy is set.  Defaults to 10,000.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract Integer getBufferSize();
+
+    /**
+     * The number of connections to open with the subscription id.  Doppler spreads the envelopes of a subscription across all of its connections, so additional connections increase the throughput
+     * of a single consumer.  Connections are reopened as configured on the client: each is reopened independently if it fails, or, without reconnection, the failure of any connection fails the
+     * firehose, as it does for a single connection.  Defaults to a single connection.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract Integer getConnections();
+
+    /**
+     * The event types to receive.  Envelopes of other event types are discarded before they are decoded.  Defaults to all event types.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract List<EventType> getEventTypes();
+
+    /**
+     * The origins to receive.  Envelopes from other origins are discarded before they are decoded.  Defaults to all origins.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract List<String> getOrigins();
+
+    /**
+     * The strategy for handling envelopes that arrive faster than they are consumed.  Envelopes that are discarded are counted by event type.  If not set, envelopes are only received as fast as
+     * they are consumed and Doppler may close the connection of a slow consumer.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract OverflowStrategy getOverflowStrategy();
+
     /**
      * The subscription id
      */
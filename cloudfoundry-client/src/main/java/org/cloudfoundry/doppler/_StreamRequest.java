@@ -17,8 +17,11 @@
 package org.cloudfoundry.doppler;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
+import java.util.List;
+
 /**
  * The request payload for the Stream endpoint
  */
@@ -31,4 +34,18 @@ abstract class _StreamRequest {
     @JsonIgnore
     abstract String getApplicationId();
 
+    /**
+     * The event types to receive.  Envelopes of other event types are discarded before they are decoded.  Defaults to all event types.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract List<EventType> getEventTypes();
+
+    /**
+     * The origins to receive.  Envelopes from other origins are discarded before they are decoded.  Defaults to all origins.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract List<String> getOrigins();
+
 }
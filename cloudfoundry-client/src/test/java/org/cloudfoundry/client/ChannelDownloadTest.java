@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+
+public final class ChannelDownloadTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void noChannel() {
+        ChannelDownload.builder()
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noDigestAlgorithm() {
+        ChannelDownload.builder()
+            .channel(Channels.newChannel(new ByteArrayOutputStream()))
+            .expectedDigest("test-expected-digest")
+            .build();
+    }
+
+    @Test
+    public void valid() {
+        ChannelDownload.builder()
+            .channel(Channels.newChannel(new ByteArrayOutputStream()))
+            .digestAlgorithm("SHA-1")
+            .expectedDigest("test-expected-digest")
+            .build();
+    }
+
+}
@@ -20,6 +20,23 @@ import org.junit.Test;
 
 public final class FirehoseRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void invalidBufferSize() {
+        FirehoseRequest.builder()
+            .bufferSize(0)
+            .overflowStrategy(OverflowStrategy.DROP_OLDEST)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidConnections() {
+        FirehoseRequest.builder()
+            .connections(0)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noSubscriptionId() {
         FirehoseRequest.builder()
@@ -33,4 +50,21 @@ public final class FirehoseRequestTest {
             .build();
     }
 
+    @Test
+    public void validBufferSize() {
+        FirehoseRequest.builder()
+            .bufferSize(100)
+            .overflowStrategy(OverflowStrategy.DROP_OLDEST)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
+    @Test
+    public void validConnections() {
+        FirehoseRequest.builder()
+            .connections(4)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
 }
@@ -50,6 +50,8 @@ import org.cloudfoundry.operations.stacks.Stacks;
 import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.uaa.UaaClient;
 import org.cloudfoundry.util.ExceptionUtils;
+import org.cloudfoundry.util.FingerprintCache;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import org.immutables.value.Value;
@@ -74,7 +76,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Applications applications() {
-        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId());
+        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId(), getFingerprintCache(), getNameCache());
     }
 
     @Override
@@ -86,7 +88,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Domains domains() {
-        return new DefaultDomains(getCloudFoundryClientPublisher(), getRoutingClientPublisher());
+        return new DefaultDomains(getCloudFoundryClientPublisher(), getRoutingClientPublisher(), getNameCache());
     }
 
     @Override
@@ -98,13 +100,13 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Organizations organizations() {
-        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getUsername());
+        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getUsername(), getNameCache());
     }
 
     @Override
     @Value.Derived
     public Routes routes() {
-        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getNameCache());
     }
 
     @Override
@@ -116,7 +118,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Services services() {
-        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getNameCache());
     }
 
     @Override
@@ -128,7 +130,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Spaces spaces() {
-        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername());
+        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername(), getNameCache());
     }
 
     @Override
@@ -163,6 +165,24 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
             .orElse(Mono.error(new IllegalStateException("DopplerClient must be set")));
     }
 
+    /**
+     * The cache of file hashes to consult when pushing applications.  Defaults to a cache held in memory that holds at most 100,000 files, which only avoids rehashing files pushed more than once by
+     * this instance.  A cache created with {@link FingerprintCache#load(java.nio.file.Path)} must be set for hashes to be kept between runs.
+     */
+    @Value.Default
+    FingerprintCache getFingerprintCache() {
+        return FingerprintCache.create();
+    }
+
+    /**
+     * The cache of resource ids looked up by name, shared by all operations.  Entries are keyed by client, so a cache may be shared between operations targeting different foundations.  Use
+     * {@link NameCache#create()} to reuse ids between operations.  Defaults to {@link NameCache#disabled()}, which looks up every name.
+     */
+    @Value.Default
+    NameCache getNameCache() {
+        return NameCache.disabled();
+    }
+
     /**
      * The organization to target
      */
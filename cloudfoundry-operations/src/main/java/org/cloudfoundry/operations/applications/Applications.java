@@ -33,6 +33,16 @@ public interface Applications {
      */
     Mono<Void> copySource(CopySourceApplicationRequest request);
 
+    /**
+     * Copy the bits of applications in this space to applications in a space on another foundation.  The bits are streamed from the source foundation to the target foundation without being
+     * staged locally.  Each application must already exist in the target space.  Only the bits are copied, not the source's droplet, so a target application runs the copied bits once it has been
+     * restaged, for example by setting {@code restart}.
+     *
+     * @param request the copy to foundation application request
+     * @return a completion indicator
+     */
+    Mono<Void> copyToFoundation(CopyToFoundationApplicationRequest request);
+
     /**
      * Deletes a specific application and, optionally, all routes mapped to the application.
      * <p>
@@ -33,10 +33,12 @@ import org.cloudfoundry.client.v2.applications.CopyApplicationRequest;
 import org.cloudfoundry.client.v2.applications.CopyApplicationResponse;
 import org.cloudfoundry.client.v2.applications.CreateApplicationRequest;
 import org.cloudfoundry.client.v2.applications.CreateApplicationResponse;
+import org.cloudfoundry.client.v2.applications.DownloadApplicationRequest;
 import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -86,33 +88,45 @@ import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.DelayTimeoutException;
 import org.cloudfoundry.util.ExceptionUtils;
+import org.cloudfoundry.util.FileUtils;
+import org.cloudfoundry.util.FingerprintCache;
 import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.OperationUtils;
 import org.cloudfoundry.util.PaginationUtils;
+import org.cloudfoundry.util.ResourceMatchingUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import org.cloudfoundry.util.SortingUtils;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple4;
 import reactor.util.function.Tuples;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
+import static org.cloudfoundry.util.tuple.TupleUtils.consumer;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
@@ -128,31 +142,58 @@ public final class DefaultApplications implements Applications {
 
     private static final int CF_STAGING_TIME_EXPIRED = 170007;
 
+    private static final int DEFAULT_COPY_CONCURRENCY = 4;
+
     private static final Comparator<LogMessage> LOG_MESSAGE_COMPARATOR = Comparator.comparing(LogMessage::getTimestamp);
 
     private static final Duration LOG_MESSAGE_TIMESPAN = Duration.ofMillis(500);
 
     private static final int MAX_NUMBER_OF_RECENT_EVENTS = 50;
 
+    private static final Duration MAX_POLLING_INTERVAL = Duration.ofSeconds(5);
+
     private static final String STARTED_STATE = "STARTED";
 
+    private static final Duration STATE_CHANGE_SIGNAL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Set<String> STATE_CHANGE_SOURCE_TYPES = new HashSet<>(Arrays.asList("API", "CELL", "DEA", "STG"));
+
     private static final String STOPPED_STATE = "STOPPED";
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
     private final Mono<DopplerClient> dopplerClient;
 
+    private final FingerprintCache fingerprintCache;
+
+    private final NameCache nameCache;
+
     private final RandomWords randomWords;
 
     private final Mono<String> spaceId;
 
     public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId) {
-        this(cloudFoundryClient, dopplerClient, spaceId, new WordListRandomWords());
+        this(cloudFoundryClient, dopplerClient, spaceId, FingerprintCache.create());
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, FingerprintCache fingerprintCache) {
+        this(cloudFoundryClient, dopplerClient, spaceId, fingerprintCache, NameCache.disabled());
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, FingerprintCache fingerprintCache, NameCache nameCache) {
+        this(cloudFoundryClient, dopplerClient, spaceId, fingerprintCache, nameCache, new WordListRandomWords());
     }
 
     DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, RandomWords randomWords) {
+        this(cloudFoundryClient, dopplerClient, spaceId, FingerprintCache.create(), NameCache.disabled(), randomWords);
+    }
+
+    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, FingerprintCache fingerprintCache, NameCache nameCache,
+                        RandomWords randomWords) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
+        this.fingerprintCache = fingerprintCache;
+        this.nameCache = nameCache;
         this.spaceId = spaceId;
         this.randomWords = randomWords;
     }
@@ -163,27 +204,47 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId),
-                getApplicationIdFromOrgSpace(cloudFoundryClient, request.getTargetName(), spaceId, request.getTargetOrganization(), request.getTargetSpace())
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId),
+                getApplicationIdFromOrgSpace(cloudFoundryClient, this.nameCache, request.getTargetName(), spaceId, request.getTargetOrganization(), request.getTargetSpace())
             )))
             .then(function((cloudFoundryClient, sourceApplicationId, targetApplicationId) -> copyBits(cloudFoundryClient, sourceApplicationId, targetApplicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, targetApplicationId)))))
             .filter(predicate((cloudFoundryClient, targetApplicationId) -> Optional.ofNullable(request.getRestart()).orElse(false)))
-            .then(function((cloudFoundryClient, targetApplicationId) -> restartApplication(cloudFoundryClient, request.getTargetName(), targetApplicationId, request.getStagingTimeout(),
-                request.getStartupTimeout())));
+            .then(function((cloudFoundryClient, targetApplicationId) -> restartApplication(cloudFoundryClient, this.dopplerClient, request.getTargetName(), targetApplicationId, request.getStagingTimeout(),
+                request.getStartupTimeout())))
+            .as(this.nameCache::invalidateOnNotFound);
+    }
+
+    @Override
+    public Mono<Void> copyToFoundation(CopyToFoundationApplicationRequest request) {
+        CloudFoundryClient targetClient = request.getTargetClient();
+
+        return Mono
+            .when(this.cloudFoundryClient, this.spaceId, getOrganizationId(targetClient, NameCache.disabled(), request.getTargetOrganization())
+                .then(organizationId -> getSpaceId(targetClient, NameCache.disabled(), organizationId, request.getTargetSpace())))
+            .flatMap(function((cloudFoundryClient, spaceId, targetSpaceId) -> Flux.fromIterable(request.getNames())
+                .flatMap(name -> copyToFoundation(cloudFoundryClient, this.nameCache, spaceId, targetClient, targetSpaceId, name, request),
+                    Optional.ofNullable(request.getConcurrency()).orElse(DEFAULT_COPY_CONCURRENCY))))
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
     public Mono<Void> delete(DeleteApplicationRequest request) {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .then(function((cloudFoundryClient, spaceId) -> getRoutesAndApplicationId(cloudFoundryClient, request, spaceId, Optional.ofNullable(request.getDeleteRoutes()).orElse(false))
+            .then(function((cloudFoundryClient, spaceId) -> getRoutesAndApplicationId(cloudFoundryClient, this.nameCache, request, spaceId,
+                Optional.ofNullable(request.getDeleteRoutes()).orElse(false))
                 .map(function((routes, applicationId) -> Tuples.of(cloudFoundryClient, routes, applicationId)))))
             .then(function((cloudFoundryClient, routes, applicationId) -> deleteRoutes(cloudFoundryClient, routes)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
             .then(function((cloudFoundryClient, applicationId) -> removeServiceBindings(cloudFoundryClient, applicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-            .then(function(DefaultApplications::requestDeleteApplication));
+            .then(function(DefaultApplications::requestDeleteApplication))
+            .then(Mono.when(this.cloudFoundryClient, this.spaceId))
+            .doOnNext(consumer((cloudFoundryClient, spaceId) -> this.nameCache.invalidate(cloudFoundryClient, NameCache.APPLICATION, spaceId, request.getName())))
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -228,7 +289,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
@@ -238,7 +299,8 @@ public final class DefaultApplications implements Applications {
                 Mono.just(response),
                 getStackName(cloudFoundryClient, response.getStackId())
             )))
-            .then(function(DefaultApplications::toApplicationManifest));
+            .then(function(DefaultApplications::toApplicationManifest))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -247,10 +309,11 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .then(function(DefaultApplications::requestApplicationEnvironment))
-            .map(DefaultApplications::toApplicationEnvironments);
+            .map(DefaultApplications::toApplicationEnvironments)
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -259,7 +322,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .flatMap(function((cloudFoundryClient, applicationId) -> requestEvents(applicationId, cloudFoundryClient)
                 .take(Optional.ofNullable(request.getMaxNumberOfEvents()).orElse(MAX_NUMBER_OF_RECENT_EVENTS))))
@@ -287,7 +350,7 @@ public final class DefaultApplications implements Applications {
     public Flux<LogMessage> logs(LogsRequest request) {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .then(function((cloudFoundryClient, spaceId) -> getApplicationId(cloudFoundryClient, request.getName(), spaceId)))
+            .then(function((cloudFoundryClient, spaceId) -> getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)))
             .flatMap(applicationId -> getLogs(this.dopplerClient, applicationId, request.getRecent()));
     }
 
@@ -298,33 +361,35 @@ public final class DefaultApplications implements Applications {
                 .then(cloudFoundryClient -> Mono.when(
                     Mono.just(cloudFoundryClient),
                     this.spaceId,
-                    getOptionalStackId(cloudFoundryClient, request.getStack())
+                    getOptionalStackId(cloudFoundryClient, this.nameCache, request.getStack())
                 ))
                 .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
                     Mono.just(cloudFoundryClient),
                     getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
                     Mono.just(spaceId)
                 )))
-                .then(function((cloudFoundryClient, applicationId, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
+                .then(function((cloudFoundryClient, applicationId, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, this.nameCache, request, applicationId, spaceId, this.randomWords)
                     .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, request.getApplication())
+                .then(function((cloudFoundryClient, applicationId) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, request.getApplication(), this.fingerprintCache)
                     .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)));
+                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, this.dopplerClient, applicationId, request)))
+                .as(this.nameCache::invalidateOnNotFound);
         } else if (request.getDockerImage() != null) {
             return this.cloudFoundryClient
                 .then(cloudFoundryClient -> Mono.when(
                     Mono.just(cloudFoundryClient),
                     this.spaceId,
-                    getOptionalStackId(cloudFoundryClient, request.getStack())
+                    getOptionalStackId(cloudFoundryClient, this.nameCache, request.getStack())
                 ))
                 .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
                     Mono.just(cloudFoundryClient),
                     getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
                     Mono.just(spaceId)
                 )))
-                .then(function((cloudFoundryClient, applicationId, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
+                .then(function((cloudFoundryClient, applicationId, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, this.nameCache, request, applicationId, spaceId, this.randomWords)
                     .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)));
+                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, this.dopplerClient, applicationId, request)))
+                .as(this.nameCache::invalidateOnNotFound);
         } else {
             throw new IllegalStateException("One of application or dockerImage must be supplied");
         }
@@ -336,10 +401,13 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationName(cloudFoundryClient, applicationId, request.getNewName())))
-            .then();
+            .then(Mono.when(this.cloudFoundryClient, this.spaceId))
+            .doOnNext(consumer((cloudFoundryClient, spaceId) -> this.nameCache.invalidate(cloudFoundryClient, NameCache.APPLICATION, spaceId, request.getName())))
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -348,9 +416,10 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
-            .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())));
+            .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, this.dopplerClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -365,7 +434,7 @@ public final class DefaultApplications implements Applications {
                 Mono.just(cloudFoundryClient),
                 stopApplicationIfNotStopped(cloudFoundryClient, resource)
             )))
-            .then(function((cloudFoundryClient, stoppedApplication) -> startApplicationAndWait(cloudFoundryClient, request.getName(), ResourceUtils.getId(stoppedApplication),
+            .then(function((cloudFoundryClient, stoppedApplication) -> startApplicationAndWait(cloudFoundryClient, this.dopplerClient, request.getName(), ResourceUtils.getId(stoppedApplication),
                 request.getStagingTimeout(), request.getStartupTimeout())));
     }
 
@@ -375,9 +444,10 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
-            .then(function((cloudFoundryClient, applicationId) -> requestTerminateApplicationInstance(cloudFoundryClient, applicationId, String.valueOf(request.getInstanceIndex()))));
+            .then(function((cloudFoundryClient, applicationId) -> requestTerminateApplicationInstance(cloudFoundryClient, applicationId, String.valueOf(request.getInstanceIndex()))))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -387,15 +457,16 @@ public final class DefaultApplications implements Applications {
             .filter(predicate((cloudFoundryClient, spaceId) -> areModifiersPresent(request)))
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
                 requestUpdateApplicationScale(cloudFoundryClient, applicationId, request.getDiskLimit(), request.getInstances(), request.getMemoryLimit())
             )))
             .filter(predicate((cloudFoundryClient, resource) -> isRestartRequired(request, resource)))
-            .then(function((cloudFoundryClient, resource) -> restartApplication(cloudFoundryClient, request.getName(), ResourceUtils.getId(resource), request.getStagingTimeout(),
-                request.getStartupTimeout())));
+            .then(function((cloudFoundryClient, resource) -> restartApplication(cloudFoundryClient, this.dopplerClient, request.getName(), ResourceUtils.getId(resource), request.getStagingTimeout(),
+                request.getStartupTimeout())))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -417,10 +488,11 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.nameCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationHealthCheckType(cloudFoundryClient, applicationId, request.getType())))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -439,7 +511,7 @@ public final class DefaultApplications implements Applications {
                 Mono.just(cloudFoundryClient),
                 getApplicationIdWhere(cloudFoundryClient, request.getName(), spaceId, isNotIn(STARTED_STATE))
             )))
-            .then(function((cloudFoundryClient, applicationId) -> startApplicationAndWait(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(),
+            .then(function((cloudFoundryClient, applicationId) -> startApplicationAndWait(cloudFoundryClient, this.dopplerClient, request.getName(), applicationId, request.getStagingTimeout(),
                 request.getStartupTimeout())));
     }
 
@@ -510,11 +582,42 @@ public final class DefaultApplications implements Applications {
             .build();
     }
 
+    private static Mono<Void> copyToFoundation(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String spaceId, CloudFoundryClient targetClient, String targetSpaceId,
+                                               String application, CopyToFoundationApplicationRequest request) {
+        return Mono
+            .when(
+                getApplicationId(cloudFoundryClient, nameCache, application, spaceId),
+                getApplicationId(targetClient, NameCache.disabled(), application, targetSpaceId)
+            )
+            .then(function((sourceApplicationId, targetApplicationId) -> requestUploadApplicationBits(targetClient, targetApplicationId, requestDownloadApplication(cloudFoundryClient, sourceApplicationId))
+                .then(job -> JobUtils.waitForCompletion(targetClient, job))
+                .then(Mono.just(targetApplicationId))))
+            .filter(targetApplicationId -> Optional.ofNullable(request.getRestart()).orElse(false))
+            .then(targetApplicationId -> restartApplication(targetClient, Mono.empty(), application, targetApplicationId, request.getStagingTimeout(), request.getStartupTimeout()));
+    }
+
+    private static Path compressUnmatchedResources(Path application, List<Resource> matchedResources) {
+        Path root = FileUtils.normalize(application);
+        Set<String> matchedPaths = matchedResources.stream()
+            .map(Resource::getPath)
+            .collect(Collectors.toSet());
+
+        return FileUtils.compress(root, path -> !matchedPaths.contains(FileUtils.getRelativePathName(root, path)));
+    }
+
     private static Mono<Void> copyBits(CloudFoundryClient cloudFoundryClient, String sourceApplicationId, String targetApplicationId) {
         return requestCopyBits(cloudFoundryClient, sourceApplicationId, targetApplicationId)
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     private static Mono<Void> deleteRoute(CloudFoundryClient cloudFoundryClient, String routeId) {
         return requestDeleteRoute(cloudFoundryClient, routeId)
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
@@ -588,9 +691,9 @@ public final class DefaultApplications implements Applications {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", application));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String application, String spaceId) {
+        return nameCache.get(cloudFoundryClient, NameCache.APPLICATION, spaceId, application, getApplication(cloudFoundryClient, application, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, PushApplicationRequest request, String spaceId, String stackId) {
@@ -603,16 +706,18 @@ public final class DefaultApplications implements Applications {
                 .map(ResourceUtils::getId));
     }
 
-    private static Mono<String> getApplicationIdFromOrgSpace(CloudFoundryClient cloudFoundryClient, String application, String spaceId, String organization, String space) {
+    private static Mono<String> getApplicationIdFromOrgSpace(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String application, String spaceId, String organization, String space) {
         return
             getSpaceOrganizationId(cloudFoundryClient, spaceId)
-                .then(organizationId -> organization != null ? getOrganizationId(cloudFoundryClient, organization) : Mono.just(organizationId))
-                .then(organizationId -> space != null ? getSpaceId(cloudFoundryClient, organizationId, space) : Mono.just(spaceId))
-                .then(spaceId1 -> getApplicationId(cloudFoundryClient, application, spaceId1));
+                .then(organizationId -> organization != null ? getOrganizationId(cloudFoundryClient, nameCache, organization) : Mono.just(organizationId))
+                .then(organizationId -> space != null ? getSpaceId(cloudFoundryClient, nameCache, organizationId, space) : Mono.just(spaceId))
+                .then(spaceId1 -> getApplicationId(cloudFoundryClient, nameCache, application, spaceId1));
     }
 
     private static Mono<String> getApplicationIdWhere(CloudFoundryClient cloudFoundryClient, String application, String spaceId, Predicate<AbstractApplicationResource> predicate) {
-        return getApplication(cloudFoundryClient, application, spaceId)
+        return requestApplicationsOnDemand(cloudFoundryClient, application, spaceId)
+            .next()
+            .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Application %s does not exist", application))
             .filter(predicate)
             .map(ResourceUtils::getId);
     }
@@ -654,16 +759,16 @@ public final class DefaultApplications implements Applications {
             .orElse(response.getDetectedBuildpack());
     }
 
-    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, String domain, String organizationId) {
+    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String domain, String organizationId) {
         if (domain == null) {
             return getSharedDomainIds(cloudFoundryClient)
                 .switchIfEmpty(getPrivateDomainIds(cloudFoundryClient, organizationId))
                 .next()
                 .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Domain not found"));
         } else {
-            return getPrivateDomainId(cloudFoundryClient, domain, organizationId)
+            return nameCache.get(cloudFoundryClient, NameCache.DOMAIN, organizationId, domain, getPrivateDomainId(cloudFoundryClient, domain, organizationId)
                 .otherwiseIfEmpty(getSharedDomainId(cloudFoundryClient, domain))
-                .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Domain %s not found", domain));
+                .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Domain %s not found", domain)));
         }
     }
 
@@ -710,10 +815,10 @@ public final class DefaultApplications implements Applications {
         }
     }
 
-    private static Mono<Optional<String>> getOptionalStackId(CloudFoundryClient cloudFoundryClient, String stack) {
+    private static Mono<Optional<String>> getOptionalStackId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String stack) {
         return Optional.ofNullable(stack)
-            .map(stack1 -> requestStackId(cloudFoundryClient, stack1)
-                .map(ResourceUtils::getId)
+            .map(stack1 -> nameCache.get(cloudFoundryClient, NameCache.STACK, null, stack1, requestStackId(cloudFoundryClient, stack1)
+                .map(ResourceUtils::getId))
                 .map(Optional::of)
                 .otherwiseIfEmpty(ExceptionUtils.illegalState("Stack %s not found", stack1)))
             .orElse(Mono.just(Optional.empty()));
@@ -725,9 +830,9 @@ public final class DefaultApplications implements Applications {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Organization %s not found", organization));
     }
 
-    private static Mono<String> getOrganizationId(CloudFoundryClient cloudFoundryClient, String organization) {
-        return getOrganization(cloudFoundryClient, organization)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getOrganizationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organization) {
+        return nameCache.get(cloudFoundryClient, NameCache.ORGANIZATION, null, organization, getOrganization(cloudFoundryClient, organization)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<SpaceResource> getOrganizationSpaceByName(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
@@ -769,9 +874,9 @@ public final class DefaultApplications implements Applications {
             .map(SummaryApplicationResponse::getRoutes);
     }
 
-    private static Mono<Tuple2<Optional<List<Route>>, String>> getRoutesAndApplicationId(CloudFoundryClient cloudFoundryClient, DeleteApplicationRequest request, String spaceId,
-                                                                                         boolean deleteRoutes) {
-        return getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+    private static Mono<Tuple2<Optional<List<Route>>, String>> getRoutesAndApplicationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, DeleteApplicationRequest request,
+                                                                                         String spaceId, boolean deleteRoutes) {
+        return getApplicationId(cloudFoundryClient, nameCache, request.getName(), spaceId)
             .then(applicationId -> getOptionalRoutes(cloudFoundryClient, deleteRoutes, applicationId)
                 .and(Mono.just(applicationId)));
     }
@@ -787,9 +892,9 @@ public final class DefaultApplications implements Applications {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getOrganizationSpaceByName(cloudFoundryClient, organizationId, space)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationId, String space) {
+        return nameCache.get(cloudFoundryClient, NameCache.SPACE, organizationId, space, getOrganizationSpaceByName(cloudFoundryClient, organizationId, space)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getSpaceOrganizationId(CloudFoundryClient cloudFoundryClient, String spaceId) {
@@ -802,6 +907,14 @@ public final class DefaultApplications implements Applications {
             .map(getStackResponse -> getStackResponse.getEntity().getName());
     }
 
+    private static Flux<LogMessage> getStateChangeSignals(Mono<DopplerClient> dopplerClient, String applicationId) {
+        return requestLogsStream(dopplerClient, applicationId)
+            .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
+            .map(Envelope::getLogMessage)
+            .filter(logMessage -> STATE_CHANGE_SOURCE_TYPES.contains(logMessage.getSourceType()))
+            .sampleFirst(STATE_CHANGE_SIGNAL_INTERVAL);
+    }
+
     private static boolean isIdentical(String s, String t) {
         return s == null ? t == null : s.equals(t);
     }
@@ -835,13 +948,14 @@ public final class DefaultApplications implements Applications {
         return state -> "STAGED".equals(state) || "FAILED".equals(state);
     }
 
-    private static Mono<Void> prepareDomainsAndRoutes(CloudFoundryClient cloudFoundryClient, PushApplicationRequest validRequest, String applicationId, String spaceId, RandomWords randomWords) {
+    private static Mono<Void> prepareDomainsAndRoutes(CloudFoundryClient cloudFoundryClient, NameCache nameCache, PushApplicationRequest validRequest, String applicationId, String spaceId,
+                                                      RandomWords randomWords) {
         if (Optional.ofNullable(validRequest.getNoRoute()).orElse(false)) {
             return Mono.empty();
         }
 
         return getSpaceOrganizationId(cloudFoundryClient, spaceId)
-            .then(organizationId -> getDomainId(cloudFoundryClient, validRequest.getDomain(), organizationId))
+            .then(organizationId -> getDomainId(cloudFoundryClient, nameCache, validRequest.getDomain(), organizationId))
             .then(domainId -> getPushRouteId(cloudFoundryClient, domainId, validRequest, spaceId, randomWords))
             .then(routeId -> requestAssociateRoute(cloudFoundryClient, applicationId, routeId))
             .then();
@@ -899,6 +1013,17 @@ public final class DefaultApplications implements Applications {
             .map(OperationUtils.<ApplicationResource, AbstractApplicationResource>cast());
     }
 
+    private static Flux<AbstractApplicationResource> requestApplicationsOnDemand(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
+        return PaginationUtils
+            .requestClientV2ResourcesOnDemand(page -> cloudFoundryClient.spaces()
+                .listApplications(ListSpaceApplicationsRequest.builder()
+                    .name(application)
+                    .spaceId(spaceId)
+                    .page(page)
+                    .build()))
+            .map(OperationUtils.<ApplicationResource, AbstractApplicationResource>cast());
+    }
+
     private static Mono<AssociateApplicationRouteResponse> requestAssociateRoute(CloudFoundryClient cloudFoundryClient, String applicationId, String routeId) {
         return cloudFoundryClient.applicationsV2()
             .associateRoute(AssociateApplicationRouteRequest.builder()
@@ -962,6 +1087,13 @@ public final class DefaultApplications implements Applications {
                 .build());
     }
 
+    private static Flux<byte[]> requestDownloadApplication(CloudFoundryClient cloudFoundryClient, String applicationId) {
+        return cloudFoundryClient.applicationsV2()
+            .download(DownloadApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build());
+    }
+
     private static Flux<EventResource> requestEvents(String applicationId, CloudFoundryClient cloudFoundryClient) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.events()
@@ -1003,6 +1135,7 @@ public final class DefaultApplications implements Applications {
             .flatMap(client -> client
                 .stream(StreamRequest.builder()
                     .applicationId(applicationId)
+                    .eventType(EventType.LOG_MESSAGE)
                     .build()));
     }
 
@@ -1184,40 +1317,53 @@ public final class DefaultApplications implements Applications {
         return requestUpdateApplication(cloudFoundryClient, applicationId, builder -> builder.state(state));
     }
 
-    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, Path application) {
+    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, List<Resource> matchedResources) {
         return cloudFoundryClient.applicationsV2()
             .upload(UploadApplicationRequest.builder()
                 .application(application)
                 .applicationId(applicationId)
                 .async(true)
+                .resources(matchedResources)
+                .build());
+    }
+
+    private static Mono<UploadApplicationResponse> requestUploadApplicationBits(CloudFoundryClient cloudFoundryClient, String applicationId, Flux<byte[]> applicationBits) {
+        return cloudFoundryClient.applicationsV2()
+            .upload(UploadApplicationRequest.builder()
+                .applicationBits(applicationBits)
+                .applicationId(applicationId)
+                .async(true)
                 .build());
     }
 
-    private static Mono<Void> restageApplication(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> restageApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout,
+                                                 Duration startupTimeout) {
         return requestRestageApplication(cloudFoundryClient, applicationId)
-            .then(response -> waitForStaging(cloudFoundryClient, application, applicationId, stagingTimeout))
-            .then(waitForRunning(cloudFoundryClient, application, applicationId, startupTimeout));
+            .then(response -> waitForStaging(cloudFoundryClient, dopplerClient, application, applicationId, stagingTimeout))
+            .then(waitForRunning(cloudFoundryClient, dopplerClient, application, applicationId, startupTimeout));
     }
 
-    private static Mono<Void> restartApplication(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> restartApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout,
+                                                 Duration startupTimeout) {
         return stopApplication(cloudFoundryClient, applicationId)
-            .then(startApplicationAndWait(cloudFoundryClient, application, applicationId, stagingTimeout, startupTimeout));
+            .then(startApplicationAndWait(cloudFoundryClient, dopplerClient, application, applicationId, stagingTimeout, startupTimeout));
     }
 
     private static Predicate<AbstractApplicationResource> sshEnabled(Boolean enabled) {
         return resource -> enabled.equals(ResourceUtils.getEntity(resource).getEnableSsh());
     }
 
-    private static Mono<Void> startApplicationAndWait(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> startApplicationAndWait(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout,
+                                                      Duration startupTimeout) {
         return requestUpdateApplicationState(cloudFoundryClient, applicationId, STARTED_STATE)
-            .then(response -> waitForStaging(cloudFoundryClient, application, applicationId, stagingTimeout))
-            .then(waitForRunning(cloudFoundryClient, application, applicationId, startupTimeout));
+            .then(response -> waitForStaging(cloudFoundryClient, dopplerClient, application, applicationId, stagingTimeout))
+            .then(waitForRunning(cloudFoundryClient, dopplerClient, application, applicationId, startupTimeout));
     }
 
-    private static Mono<Void> stopAndStartApplication(CloudFoundryClient cloudFoundryClient, String applicationId, PushApplicationRequest request) {
+    private static Mono<Void> stopAndStartApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String applicationId, PushApplicationRequest request) {
         return stopApplication(cloudFoundryClient, applicationId)
             .filter(resource -> !Optional.ofNullable(request.getNoStart()).orElse(false))
-            .then(resource -> startApplicationAndWait(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout()));
+            .then(resource -> startApplicationAndWait(cloudFoundryClient, dopplerClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout()));
     }
 
     private static Mono<AbstractApplicationResource> stopApplication(CloudFoundryClient cloudFoundryClient, String applicationId) {
@@ -1351,12 +1497,24 @@ public final class DefaultApplications implements Applications {
             .collectList();
     }
 
-    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application) {
-        return requestUploadApplication(cloudFoundryClient, applicationId, application)
+    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, FingerprintCache fingerprintCache) {
+        return ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, application, fingerprintCache)
+            .then(matchedResources -> uploadUnmatchedResources(cloudFoundryClient, applicationId, application, matchedResources))
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
-    private static Mono<Void> waitForRunning(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration startupTimeout) {
+    private static Mono<UploadApplicationResponse> uploadUnmatchedResources(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, List<Resource> matchedResources) {
+        if (matchedResources.isEmpty()) {
+            return requestUploadApplication(cloudFoundryClient, applicationId, application, matchedResources);
+        }
+
+        return Mono
+            .using(() -> compressUnmatchedResources(application, matchedResources),
+                unmatched -> requestUploadApplication(cloudFoundryClient, applicationId, unmatched, matchedResources),
+                DefaultApplications::delete);
+    }
+
+    private static Mono<Void> waitForRunning(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration startupTimeout) {
         Duration timeout = Optional.ofNullable(startupTimeout).orElse(Duration.ofMinutes(5));
 
         return requestApplicationInstances(cloudFoundryClient, applicationId)
@@ -1364,20 +1522,20 @@ public final class DefaultApplications implements Applications {
             .map(ApplicationInstanceInfo::getState)
             .reduce("UNKNOWN", collectStates())
             .filter(isInstanceComplete())
-            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), timeout))
+            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), MAX_POLLING_INTERVAL, timeout, getStateChangeSignals(dopplerClient, applicationId)))
             .filter(isRunning())
             .otherwiseIfEmpty(ExceptionUtils.illegalState("Application %s failed during start", application))
             .otherwise(DelayTimeoutException.class, t -> ExceptionUtils.illegalState("Application %s timed out during start", application))
             .then();
     }
 
-    private static Mono<Void> waitForStaging(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout) {
+    private static Mono<Void> waitForStaging(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout) {
         Duration timeout = Optional.ofNullable(stagingTimeout).orElse(Duration.ofMinutes(15));
 
         return requestGetApplication(cloudFoundryClient, applicationId)
             .map(response -> ResourceUtils.getEntity(response).getPackageState())
             .filter(isStagingComplete())
-            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), timeout))
+            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), MAX_POLLING_INTERVAL, timeout, getStateChangeSignals(dopplerClient, applicationId)))
             .filter(isStaged())
             .otherwiseIfEmpty(ExceptionUtils.illegalState("Application %s failed during staging", application))
             .otherwise(DelayTimeoutException.class, t -> ExceptionUtils.illegalState("Application %s timed out during staging", application))
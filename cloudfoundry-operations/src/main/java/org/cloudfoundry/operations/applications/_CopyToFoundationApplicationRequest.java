@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The request options for the copy to foundation operation
+ */
+@Value.Immutable
+abstract class _CopyToFoundationApplicationRequest {
+
+    /**
+     * The maximum number of applications to copy at the same time
+     */
+    @Nullable
+    abstract Integer getConcurrency();
+
+    /**
+     * The names of the applications to copy.  Each application must already exist, with the same name, in the target space.
+     */
+    abstract List<String> getNames();
+
+    /**
+     * Whether to restart the target applications
+     */
+    @Nullable
+    abstract Boolean getRestart();
+
+    /**
+     * How long to wait for staging
+     */
+    @Nullable
+    abstract Duration getStagingTimeout();
+
+    /**
+     * How long to wait for startup
+     */
+    @Nullable
+    abstract Duration getStartupTimeout();
+
+    /**
+     * The {@link CloudFoundryClient} connected to the target foundation
+     */
+    abstract CloudFoundryClient getTargetClient();
+
+    /**
+     * The organization of the target applications
+     */
+    abstract String getTargetOrganization();
+
+    /**
+     * The space of the target applications
+     */
+    abstract String getTargetSpace();
+
+}
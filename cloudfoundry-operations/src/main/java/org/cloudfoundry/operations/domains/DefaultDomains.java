@@ -34,6 +34,7 @@ import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
 import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.routing.v1.routergroups.ListRouterGroupsResponse;
 import org.cloudfoundry.util.ExceptionUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.publisher.Flux;
@@ -47,10 +48,17 @@ public final class DefaultDomains implements Domains {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameCache nameCache;
+
     private final Mono<RoutingClient> routingClient;
 
     public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient, Mono<RoutingClient> routingClient) {
+        this(cloudFoundryClient, routingClient, NameCache.disabled());
+    }
+
+    public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient, Mono<RoutingClient> routingClient, NameCache nameCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameCache = nameCache;
         this.routingClient = routingClient;
     }
 
@@ -108,7 +116,8 @@ public final class DefaultDomains implements Domains {
                 getPrivateDomainId(cloudFoundryClient, request.getDomain()),
                 getOrganizationId(cloudFoundryClient, request.getOrganization())
             ))
-            .then(function(DefaultDomains::requestRemoveOrganizationPrivateDomainRequest));
+            .then(function((cloudFoundryClient, domainId, organizationId) -> requestRemoveOrganizationPrivateDomainRequest(cloudFoundryClient, domainId, organizationId)
+                .doOnSuccess(v -> this.nameCache.invalidate(cloudFoundryClient, NameCache.DOMAIN, organizationId, request.getDomain()))));
     }
 
     private static Mono<OrganizationResource> getOrganization(CloudFoundryClient cloudFoundryClient, String organization) {
@@ -42,6 +42,7 @@ import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.publisher.Flux;
@@ -60,10 +61,17 @@ public final class DefaultOrganizations implements Organizations {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameCache nameCache;
+
     private final Mono<String> username;
 
     public DefaultOrganizations(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> username) {
+        this(cloudFoundryClient, username, NameCache.disabled());
+    }
+
+    public DefaultOrganizations(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> username, NameCache nameCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameCache = nameCache;
         this.username = username;
     }
 
@@ -88,7 +96,10 @@ public final class DefaultOrganizations implements Organizations {
                 Mono.just(cloudFoundryClient),
                 getOrganizationId(cloudFoundryClient, request.getName())
             ))
-            .then(function(DefaultOrganizations::deleteOrganization));
+            .then(function(DefaultOrganizations::deleteOrganization))
+            .then(this.cloudFoundryClient)
+            .doOnNext(cloudFoundryClient -> this.nameCache.invalidate(cloudFoundryClient, NameCache.ORGANIZATION, null, request.getName()))
+            .then();
     }
 
     @Override
@@ -117,6 +128,8 @@ public final class DefaultOrganizations implements Organizations {
                 getOrganizationId(cloudFoundryClient, request.getName())
             ))
             .then(function((cloudFoundryClient, organizationId) -> requestUpdateOrganization(cloudFoundryClient, organizationId, request.getNewName())))
+            .then(this.cloudFoundryClient)
+            .doOnNext(cloudFoundryClient -> this.nameCache.invalidate(cloudFoundryClient, NameCache.ORGANIZATION, null, request.getName()))
             .then();
     }
 
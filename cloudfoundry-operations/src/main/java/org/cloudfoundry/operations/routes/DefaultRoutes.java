@@ -38,6 +38,7 @@ import org.cloudfoundry.client.v2.spaces.ListSpaceRoutesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.OperationUtils;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
@@ -59,12 +60,19 @@ public final class DefaultRoutes implements Routes {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameCache nameCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> spaceId;
 
     public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, NameCache.disabled());
+    }
+
+    public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId, NameCache nameCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameCache = nameCache;
         this.organizationId = organizationId;
         this.spaceId = spaceId;
     }
@@ -89,12 +97,13 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceId(cloudFoundryClient, organizationId, request.getSpace()),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getSpaceId(cloudFoundryClient, this.nameCache, organizationId, request.getSpace()),
+                    getDomainId(cloudFoundryClient, this.nameCache, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, spaceId, domainId) ->
                 requestCreateRoute(cloudFoundryClient, domainId, request.getHost(), request.getPath(), request.getPort(), request.getRandomPort(), spaceId)))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -104,14 +113,15 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getDomainId(cloudFoundryClient, this.nameCache, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, domainId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
                     getRouteId(cloudFoundryClient, request.getHost(), request.getDomain(), domainId, request.getPath(), request.getPort())
                 )))
-            .then(function(DefaultRoutes::deleteRoute));
+            .then(function(DefaultRoutes::deleteRoute))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -158,11 +168,12 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getOrCreateRoute(cloudFoundryClient, organizationId, spaceId, request.getDomain(), request.getHost(), request.getPath(), request.getPort(), request.getRandomPort()),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId)
+                    getOrCreateRoute(cloudFoundryClient, this.nameCache, organizationId, spaceId, request.getDomain(), request.getHost(), request.getPath(), request.getPort(), request.getRandomPort()),
+                    getApplicationId(cloudFoundryClient, this.nameCache, request.getApplicationName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, routeId, applicationId) -> requestAssociateRoute(cloudFoundryClient, applicationId, routeId)))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -172,11 +183,12 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getApplicationId(cloudFoundryClient, this.nameCache, request.getApplicationName(), spaceId),
+                    getDomainId(cloudFoundryClient, this.nameCache, organizationId, request.getDomain())
                         .then(domainId -> getRouteId(cloudFoundryClient, request.getHost(), request.getDomain(), domainId, request.getPath(), request.getPort()))
                 )))
-            .then(function(DefaultRoutes::requestRemoveRouteFromApplication));
+            .then(function(DefaultRoutes::requestRemoveRouteFromApplication))
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     private static Mono<Void> deleteRoute(CloudFoundryClient cloudFoundryClient, String routeId) {
@@ -204,9 +216,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", application));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String application, String spaceId) {
+        return nameCache.get(cloudFoundryClient, NameCache.APPLICATION, spaceId, application, getApplication(cloudFoundryClient, application, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getApplicationNames(CloudFoundryClient cloudFoundryClient, String routeId) {
@@ -226,9 +238,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Domain %s does not exist", domain));
     }
 
-    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
-        return getDomain(cloudFoundryClient, organizationId, domain)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationId, String domain) {
+        return nameCache.get(cloudFoundryClient, NameCache.DOMAIN, organizationId, domain, getDomain(cloudFoundryClient, organizationId, domain)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getDomainName(Map<String, String> domains, String domainId) {
@@ -248,9 +260,9 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<String> getOrCreateRoute(CloudFoundryClient cloudFoundryClient, String organizationId, String spaceId, String domain, String host, String path, Integer port,
-                                                 Boolean randomPort) {
-        return getDomainId(cloudFoundryClient, organizationId, domain)
+    private static Mono<String> getOrCreateRoute(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationId, String spaceId, String domain, String host, String path,
+                                                 Integer port, Boolean randomPort) {
+        return getDomainId(cloudFoundryClient, nameCache, organizationId, domain)
             .then(domainId -> getRoute(cloudFoundryClient, domainId, host, path, port)
                 .map(OperationUtils.<RouteResource, Resource<RouteEntity>>cast())
                 .otherwiseIfEmpty(requestCreateRoute(cloudFoundryClient, domainId, host, path, port, randomPort, spaceId)))
@@ -264,13 +276,13 @@ public final class DefaultRoutes implements Routes {
 
     private static Mono<RouteResource> getRoute(CloudFoundryClient cloudFoundryClient, String domainId, String host, String path, Integer port) {
         if (port != null) {
-            return requestRoutes(cloudFoundryClient, domainId, host, path, port)
-                .singleOrEmpty();
+            return requestRoutesOnDemand(cloudFoundryClient, domainId, host, path, port)
+                .next();
         } else {
-            return requestRoutes(cloudFoundryClient, domainId, host, path, port)
+            return requestRoutesOnDemand(cloudFoundryClient, domainId, host, path, port)
                 .filter(resource -> isIdentical(nullSafe(host), ResourceUtils.getEntity(resource).getHost()))
                 .filter(resource -> isIdentical(Optional.ofNullable(path).orElse(""), ResourceUtils.getEntity(resource).getPath()))
-                .singleOrEmpty();
+                .next();
         }
     }
 
@@ -295,9 +307,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space %s does not exist", space));
     }
 
-    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getSpace(cloudFoundryClient, organizationId, space)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationId, String space) {
+        return nameCache.get(cloudFoundryClient, NameCache.SPACE, organizationId, space, getSpace(cloudFoundryClient, organizationId, space)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getSpaceName(Map<String, String> spaces, String spaceId) {
@@ -434,13 +446,16 @@ public final class DefaultRoutes implements Routes {
                     .build()));
     }
 
-    private static Flux<RouteResource> requestRoutes(CloudFoundryClient cloudFoundryClient, String domainId, String host, String path, Integer port) {
-        return requestRoutes(cloudFoundryClient, builder -> builder
-            .domainId(domainId)
-            .hosts(Optional.ofNullable(host).map(Collections::singletonList).orElse(null))
-            .paths(Optional.ofNullable(path).map(Collections::singletonList).orElse(null))
-            .port(Optional.ofNullable(port).orElse(null))
-        );
+    private static Flux<RouteResource> requestRoutesOnDemand(CloudFoundryClient cloudFoundryClient, String domainId, String host, String path, Integer port) {
+        return PaginationUtils
+            .requestClientV2ResourcesOnDemand(page -> cloudFoundryClient.routes()
+                .list(org.cloudfoundry.client.v2.routes.ListRoutesRequest.builder()
+                    .domainId(domainId)
+                    .hosts(Optional.ofNullable(host).map(Collections::singletonList).orElse(null))
+                    .paths(Optional.ofNullable(path).map(Collections::singletonList).orElse(null))
+                    .port(Optional.ofNullable(port).orElse(null))
+                    .page(page)
+                    .build()));
     }
 
     private static Flux<SharedDomainResource> requestSharedDomains(CloudFoundryClient cloudFoundryClient, String domain) {
@@ -71,6 +71,7 @@ import org.cloudfoundry.client.v2.userprovidedserviceinstances.UpdateUserProvide
 import org.cloudfoundry.util.DelayUtils;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.Exceptions;
@@ -100,12 +101,19 @@ public final class DefaultServices implements Services {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameCache nameCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> spaceId;
 
     public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, NameCache.disabled());
+    }
+
+    public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId, NameCache nameCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameCache = nameCache;
         this.spaceId = spaceId;
         this.organizationId = organizationId;
     }
@@ -117,11 +125,12 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
+                    getApplicationId(cloudFoundryClient, this.nameCache, request.getApplicationName(), spaceId),
                     getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> createServiceBinding(cloudFoundryClient, applicationId, serviceInstanceId, request.getParameters())))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -131,7 +140,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getDomainId(cloudFoundryClient, request.getDomainName(), organizationId),
+                    getDomainId(cloudFoundryClient, this.nameCache, request.getDomainName(), organizationId),
                     Mono.just(spaceId)
                 )))
             .then(function((cloudFoundryClient, domainId, spaceId) -> Mono
@@ -141,7 +150,8 @@ public final class DefaultServices implements Services {
                     getSpaceUserProvidedServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, routeId, userProvidedServiceInstanceId) -> createRouteBinding(cloudFoundryClient, routeId, userProvidedServiceInstanceId, request.getParameters())))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -333,7 +343,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
+                    getApplicationId(cloudFoundryClient, this.nameCache, request.getApplicationName(), spaceId),
                     getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> Mono
@@ -342,7 +352,8 @@ public final class DefaultServices implements Services {
                     getServiceBindingId(cloudFoundryClient, applicationId, serviceInstanceId, request.getServiceInstanceName())
                 )))
             .then(function(DefaultServices::deleteServiceBinding))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -431,9 +442,9 @@ public final class DefaultServices implements Services {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", applicationName));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String applicationName, String spaceId) {
-        return getApplication(cloudFoundryClient, applicationName, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String applicationName, String spaceId) {
+        return nameCache.get(cloudFoundryClient, NameCache.APPLICATION, spaceId, applicationName, getApplication(cloudFoundryClient, applicationName, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getBoundApplications(CloudFoundryClient cloudFoundryClient, String serviceInstanceId) {
@@ -445,10 +456,10 @@ public final class DefaultServices implements Services {
             .collectList();
     }
 
-    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, String domain, String organizationId) {
-        return getPrivateDomainId(cloudFoundryClient, domain, organizationId)
+    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String domain, String organizationId) {
+        return nameCache.get(cloudFoundryClient, NameCache.DOMAIN, organizationId, domain, getPrivateDomainId(cloudFoundryClient, domain, organizationId)
             .otherwiseIfEmpty(getSharedDomainId(cloudFoundryClient, domain))
-            .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Domain %s not found", domain));
+            .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Domain %s not found", domain)));
     }
 
     @SuppressWarnings("unchecked")
@@ -53,6 +53,7 @@ import org.cloudfoundry.client.v2.spaces.UpdateSpaceResponse;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.NameCache;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.publisher.Flux;
@@ -66,18 +67,26 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static org.cloudfoundry.util.tuple.TupleUtils.consumer;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 public final class DefaultSpaces implements Spaces {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameCache nameCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> username;
 
     public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> username) {
+        this(cloudFoundryClient, organizationId, username, NameCache.disabled());
+    }
+
+    public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> username, NameCache nameCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameCache = nameCache;
         this.organizationId = organizationId;
         this.username = username;
     }
@@ -103,7 +112,7 @@ public final class DefaultSpaces implements Spaces {
                 .when(
                     Mono.just(cloudFoundryClient),
                     Mono.just(username),
-                    getOrganizationIdOrDefault(cloudFoundryClient, request.getOrganization(), this.organizationId)
+                    getOrganizationIdOrDefault(cloudFoundryClient, this.nameCache, request.getOrganization(), this.organizationId)
                 )))
             .then(function((cloudFoundryClient, username, organizationId) -> Mono
                 .when(
@@ -127,7 +136,8 @@ public final class DefaultSpaces implements Spaces {
                     requestAssociateSpaceManagerByUsername(cloudFoundryClient, spaceId, username),
                     requestAssociateSpaceDeveloperByUsername(cloudFoundryClient, spaceId, username)
                 )))
-            .then();
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -137,9 +147,13 @@ public final class DefaultSpaces implements Spaces {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
+                    getOrganizationSpaceId(cloudFoundryClient, this.nameCache, organizationId, request.getName())
                 )))
-            .then(function(DefaultSpaces::deleteSpace));
+            .then(function(DefaultSpaces::deleteSpace))
+            .then(Mono.when(this.cloudFoundryClient, this.organizationId))
+            .doOnNext(consumer((cloudFoundryClient, organizationId) -> this.nameCache.invalidate(cloudFoundryClient, NameCache.SPACE, organizationId, request.getName())))
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -182,10 +196,13 @@ public final class DefaultSpaces implements Spaces {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
+                    getOrganizationSpaceId(cloudFoundryClient, this.nameCache, organizationId, request.getName())
                 )))
             .then(function((cloudFoundryClient, spaceId) -> requestUpdateSpace(cloudFoundryClient, spaceId, request.getNewName())))
-            .then();
+            .then(Mono.when(this.cloudFoundryClient, this.organizationId))
+            .doOnNext(consumer((cloudFoundryClient, organizationId) -> this.nameCache.invalidate(cloudFoundryClient, NameCache.SPACE, organizationId, request.getName())))
+            .then()
+            .as(this.nameCache::invalidateOnNotFound);
     }
 
     @Override
@@ -241,14 +258,14 @@ public final class DefaultSpaces implements Spaces {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Organization %s does not exist", organization));
     }
 
-    private static Mono<String> getOrganizationId(CloudFoundryClient cloudFoundryClient, String organization) {
-        return getOrganization(cloudFoundryClient, organization)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getOrganizationId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organization) {
+        return nameCache.get(cloudFoundryClient, NameCache.ORGANIZATION, null, organization, getOrganization(cloudFoundryClient, organization)
+            .map(ResourceUtils::getId));
     }
 
-    private static Mono<String> getOrganizationIdOrDefault(CloudFoundryClient cloudFoundryClient, String organizationName, Mono<String> organizationId) {
+    private static Mono<String> getOrganizationIdOrDefault(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationName, Mono<String> organizationId) {
         return Optional.ofNullable(organizationName)
-            .map(organization -> getOrganizationId(cloudFoundryClient, organization))
+            .map(organization -> getOrganizationId(cloudFoundryClient, nameCache, organization))
             .orElse(organizationId);
     }
 
@@ -263,9 +280,9 @@ public final class DefaultSpaces implements Spaces {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space %s does not exist", space));
     }
 
-    private static Mono<String> getOrganizationSpaceId(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getOrganizationSpace(cloudFoundryClient, organizationId, space)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getOrganizationSpaceId(CloudFoundryClient cloudFoundryClient, NameCache nameCache, String organizationId, String space) {
+        return nameCache.get(cloudFoundryClient, NameCache.SPACE, organizationId, space, getOrganizationSpace(cloudFoundryClient, organizationId, space)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getOrganizationSpaceIdWhere(CloudFoundryClient cloudFoundryClient, String organizationId, String space, Predicate<SpaceResource> predicate) {
@@ -34,11 +34,13 @@ import org.cloudfoundry.client.v2.applications.CopyApplicationRequest;
 import org.cloudfoundry.client.v2.applications.CopyApplicationResponse;
 import org.cloudfoundry.client.v2.applications.CreateApplicationRequest;
 import org.cloudfoundry.client.v2.applications.CreateApplicationResponse;
+import org.cloudfoundry.client.v2.applications.DownloadApplicationRequest;
 import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsResponse;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -66,6 +68,8 @@ import org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse;
 import org.cloudfoundry.client.v2.organizations.OrganizationEntity;
 import org.cloudfoundry.client.v2.organizations.OrganizationResource;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
 import org.cloudfoundry.client.v2.routes.CreateRouteRequest;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
@@ -103,11 +107,15 @@ import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.operations.AbstractOperationsTest;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.FluentMap;
+import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
@@ -123,16 +131,35 @@ import java.util.function.Supplier;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.cloudfoundry.operations.TestObjects.fill;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
+    private static final Path TEST_APPLICATION = getTestApplication();
+
+    private static final String TEST_APPLICATION_HASH = "b971c6ef19b1d70ae8f0feb989b106c319b36230";
+
+    private static final ListMatchingResourcesRequest TEST_APPLICATION_MATCH_REQUEST = ListMatchingResourcesRequest.builder()
+        .resource(org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+            .hash(TEST_APPLICATION_HASH)
+            .mode("744")
+            .size(13)
+            .build())
+        .build();
+
     private RandomWords randomWords = mock(RandomWords.class, RETURNS_SMART_NULLS);
 
     private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID),
         this.randomWords);
 
+    @Before
+    public void mockStateChangeSignals() {
+        when(this.dopplerClient.stream(any(StreamRequest.class))).thenReturn(Flux.never());
+    }
+
     @Test
     public void copySourceNoRestartOrgSpace() {
         requestApplications(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID, "test-metadata-id");
@@ -233,6 +260,38 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void copyToFoundation() {
+        requestOrganizations(this.cloudFoundryClient, "test-target-organization");
+        requestOrganizationSpacesByName(this.cloudFoundryClient, "test-organization-resource-metadata-id", "test-target-space");
+        requestApplications(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID, "test-metadata-id");
+        requestApplications(this.cloudFoundryClient, "test-application-name", "test-space-resource-metadata-id", "test-target-metadata-id");
+        requestDownloadApplication(this.cloudFoundryClient, "test-metadata-id", "test-bits");
+        requestUploadAny(this.cloudFoundryClient, "test-job-id");
+        requestJobSuccess(this.cloudFoundryClient, "test-job-id");
+
+        this.applications
+            .copyToFoundation(CopyToFoundationApplicationRequest.builder()
+                .name("test-application-name")
+                .targetClient(this.cloudFoundryClient)
+                .targetOrganization("test-target-organization")
+                .targetSpace("test-target-space")
+                .build())
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        ArgumentCaptor<UploadApplicationRequest> request = ArgumentCaptor.forClass(UploadApplicationRequest.class);
+        verify(this.cloudFoundryClient.applicationsV2()).upload(request.capture());
+
+        assertThat(request.getValue().getApplicationId()).isEqualTo("test-target-metadata-id");
+        request.getValue().getApplicationBits()
+            .as(StepVerifier::create)
+            .consumeNextWith(bits -> assertThat(bits).isEqualTo("test-bits".getBytes(StandardCharsets.UTF_8)))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void deleteAndDeleteRoutes() {
         requestApplications(this.cloudFoundryClient, "test-name", TEST_SPACE_ID, "test-metadata-id");
@@ -1118,7 +1177,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushDomainNotFound() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1128,7 +1187,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1141,7 +1200,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushExistingApplication() {
         requestApplications(this.cloudFoundryClient, "test-name", TEST_SPACE_ID, "test-application-id");
         requestUpdateApplication(this.cloudFoundryClient, "test-application-id", PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), null);
@@ -1150,7 +1209,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1159,7 +1219,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1172,7 +1232,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushExistingRouteWithHost() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .host("test-host")
             .name("test-name")
@@ -1181,7 +1241,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
         requestRoutes(this.cloudFoundryClient, "test-domain-id", "test-host", null, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1190,7 +1251,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .host("test-host")
                 .name("test-name")
@@ -1204,7 +1265,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushExistingRouteWithNoHost() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .noHostname(true)
             .name("test-name")
@@ -1213,7 +1274,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
         requestRoutes(this.cloudFoundryClient, "test-domain-id", null, null, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1222,7 +1284,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .noHostname(true)
                 .name("test-name")
@@ -1238,7 +1300,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .name("test-name")
                 .stack("invalid-stack")
                 .build())
@@ -1247,11 +1309,54 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void pushMatchedResources() {
+        requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
+        requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
+            .application(TEST_APPLICATION)
+            .domain("test-domain")
+            .name("test-name")
+            .build(), TEST_SPACE_ID, null, "test-application-id");
+        requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+        requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+        requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
+        requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
+        requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
+        requestListMatchingResources(this.cloudFoundryClient);
+        requestUploadAny(this.cloudFoundryClient, "test-job-id");
+        requestJobSuccess(this.cloudFoundryClient, "test-job-id");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
+        requestGetApplication(this.cloudFoundryClient, "test-application-id");
+        requestApplicationInstancesRunning(this.cloudFoundryClient, "test-application-id");
+
+        this.applications
+            .push(PushApplicationRequest.builder()
+                .application(TEST_APPLICATION)
+                .domain("test-domain")
+                .name("test-name")
+                .build())
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        ArgumentCaptor<UploadApplicationRequest> request = ArgumentCaptor.forClass(UploadApplicationRequest.class);
+        verify(this.cloudFoundryClient.applicationsV2()).upload(request.capture());
+
+        assertThat(request.getValue().getApplication()).isNotEqualTo(TEST_APPLICATION);
+        assertThat(request.getValue().getResources()).containsExactly(Resource.builder()
+            .hash(TEST_APPLICATION_HASH)
+            .mode("744")
+            .path("test-file")
+            .size(13)
+            .build());
+    }
+
     @Test
     public void pushNewApplication() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1260,7 +1365,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1269,7 +1375,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1282,7 +1388,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNewRouteWithHost() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .host("test-host")
             .name("test-name")
@@ -1292,7 +1398,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-host", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-host", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1301,7 +1408,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .host("test-host")
                 .name("test-name")
@@ -1315,7 +1422,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNewRouteWithNoHost() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .noHostname(true)
             .name("test-name")
@@ -1325,7 +1432,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", null, null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", null, null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1334,7 +1442,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .noHostname(true)
                 .name("test-name")
@@ -1348,7 +1456,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNoDomainNoneFound() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
         requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
@@ -1357,7 +1465,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .name("test-name")
                 .build())
             .as(StepVerifier::create)
@@ -1369,7 +1477,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNoDomainPrivate() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
         requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
@@ -1378,7 +1486,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1387,7 +1496,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .name("test-name")
                 .build())
             .as(StepVerifier::create)
@@ -1399,7 +1508,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNoDomainShared() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
         requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
@@ -1407,7 +1516,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1416,7 +1526,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .name("test-name")
                 .build())
             .as(StepVerifier::create)
@@ -1428,13 +1538,14 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNoRoute() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .noRoute(true)
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
         requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
         requestSharedDomains(this.cloudFoundryClient, "test-domain-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1443,7 +1554,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .noRoute(true)
                 .name("test-name")
                 .build())
@@ -1456,7 +1567,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushNoStart() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .name("test-name")
             .noStart(true)
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1465,13 +1576,14 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .name("test-name")
                 .noStart(true)
                 .build())
@@ -1484,7 +1596,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushRandomRoute() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .randomRoute(true)
@@ -1495,7 +1607,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name-test-adjective-test-noun", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name-test-adjective-test-noun", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1504,7 +1617,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .randomRoute(true)
@@ -1518,7 +1631,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushSharedDomain() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1528,7 +1641,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1537,7 +1651,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1550,7 +1664,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushStartFailsRunning() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1559,7 +1673,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1568,7 +1683,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1581,7 +1696,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushStartFailsStaging() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1590,7 +1705,8 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobSuccess(this.cloudFoundryClient, "test-job-id");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
         requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
@@ -1598,7 +1714,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -1611,7 +1727,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     public void pushUploadFails() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
         requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
-            .application(Paths.get("test-application"))
+            .application(TEST_APPLICATION)
             .domain("test-domain")
             .name("test-name")
             .build(), TEST_SPACE_ID, null, "test-application-id");
@@ -1620,12 +1736,13 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
         requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
         requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
-        requestUpload(this.cloudFoundryClient, "test-application-id", Paths.get("test-application"), "test-job-id");
+        requestListMatchingResourcesEmpty(this.cloudFoundryClient);
+        requestUpload(this.cloudFoundryClient, "test-application-id", TEST_APPLICATION, "test-job-id");
         requestJobFailure(this.cloudFoundryClient, "test-job-id");
 
         this.applications
             .push(PushApplicationRequest.builder()
-                .application(Paths.get("test-application"))
+                .application(TEST_APPLICATION)
                 .domain("test-domain")
                 .name("test-name")
                 .build())
@@ -2195,6 +2312,14 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    private static Path getTestApplication() {
+        try {
+            return Paths.get(DefaultApplicationsTest.class.getClassLoader().getResource("test-application.zip").toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static void provideRandomWords(RandomWords randomWords) {
         when(randomWords.getAdjective()).thenReturn("test-adjective");
         when(randomWords.getNoun()).thenReturn("test-noun");
@@ -2640,6 +2765,15 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                     .build()));
     }
 
+    private static void requestDownloadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, String content) {
+        when(cloudFoundryClient.applicationsV2()
+            .download(DownloadApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build()))
+            .thenReturn(Flux
+                .just(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
     private static void requestEvents(CloudFoundryClient cloudFoundryClient, String applicationId, EventEntity... entities) {
         ListEventsResponse.Builder responseBuilder = fill(ListEventsResponse.builder());
 
@@ -2780,6 +2914,26 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                 }));
     }
 
+    private static void requestListMatchingResources(CloudFoundryClient cloudFoundryClient) {
+        when(cloudFoundryClient.resourceMatch()
+            .list(TEST_APPLICATION_MATCH_REQUEST))
+            .thenReturn(Mono
+                .just(ListMatchingResourcesResponse.builder()
+                    .resource(org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash(TEST_APPLICATION_HASH)
+                        .size(13)
+                        .build())
+                    .build()));
+    }
+
+    private static void requestListMatchingResourcesEmpty(CloudFoundryClient cloudFoundryClient) {
+        when(cloudFoundryClient.resourceMatch()
+            .list(TEST_APPLICATION_MATCH_REQUEST))
+            .thenReturn(Mono
+                .just(ListMatchingResourcesResponse.builder()
+                    .build()));
+    }
+
     private static void requestLogsRecent(DopplerClient dopplerClient, String applicationId) {
         when(dopplerClient
             .recentLogs(RecentLogsRequest.builder()
@@ -2798,6 +2952,7 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
         when(dopplerClient
             .stream(StreamRequest.builder()
                 .applicationId(applicationId)
+                .eventType(EventType.LOG_MESSAGE)
                 .build()))
             .thenReturn(Flux
                 .just(Envelope.builder()
@@ -3223,4 +3378,17 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                     .build()));
     }
 
+    private static void requestUploadAny(CloudFoundryClient cloudFoundryClient, String jobId) {
+        when(cloudFoundryClient.applicationsV2()
+            .upload(any(UploadApplicationRequest.class)))
+            .thenReturn(Mono
+                .just(fill(UploadApplicationResponse.builder())
+                    .metadata(fill(Metadata.builder())
+                        .id(jobId)
+                        .build())
+                    .entity(fill(JobEntity.builder(), "job-entity-")
+                        .build())
+                    .build()));
+    }
+
 }
@@ -21,11 +21,14 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -52,6 +55,53 @@ public final class DelayUtils {
         return iterations -> getDelay(minimum, maximum, finish, iterations);
     }
 
+    /**
+     * Implements an exponential backoff delay for use with {@link Mono#repeatWhenEmpty(Function)} that is cut short whenever {@code signals} emits.  Signals indicate that the polled state has
+     * likely changed, so the next repetition happens immediately rather than waiting out the delay.  If {@code signals} errors or completes, the delay degrades to a plain exponential backoff.
+     *
+     * @param minimum the minimum duration
+     * @param maximum the maximum duration
+     * @param timeout the maximum amount of time to delay for
+     * @param signals a {@link Publisher} whose elements trigger an immediate repetition
+     * @return a delayed {@link Publisher}
+     */
+    public static Function<Flux<Long>, Publisher<?>> exponentialBackOff(Duration minimum, Duration maximum, Duration timeout, Publisher<?> signals) {
+        Instant finish = Instant.now().plus(timeout);
+        return iterations -> Flux.defer(() -> {
+            AtomicBoolean pending = new AtomicBoolean();
+            DirectProcessor<Object> processor = DirectProcessor.create();
+
+            Disposable disposable = Flux.from(signals)
+                .subscribe(signal -> {
+                    pending.set(true);
+                    processor.onNext(signal);
+                }, t -> LOGGER.debug("Signals failed, continuing with backoff delay", t));
+
+            return iterations
+                .map(iteration -> calculateDuration(minimum, maximum, iteration))
+                .flatMap(delay -> {
+                    if (Instant.now().isAfter(finish)) {
+                        return Mono.error(new DelayTimeoutException());
+                    }
+
+                    if (pending.getAndSet(false)) {
+                        return Mono.just(0L);
+                    }
+
+                    return Mono
+                        .delay(delay)
+                        .doOnSubscribe(logDelay(delay))
+                        .or(processor.next()
+                            .map(signal -> {
+                                pending.set(false);
+                                return 0L;
+                            }));
+                }, 1)
+                .doOnCancel(disposable::dispose)
+                .doOnTerminate(disposable::dispose);
+        });
+    }
+
     /**
      * Implements an exponential backoff delay for use with {@link Mono#retryWhen(Function)}
      *
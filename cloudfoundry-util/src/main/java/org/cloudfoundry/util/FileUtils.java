@@ -19,28 +19,59 @@ package org.cloudfoundry.util;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import reactor.core.Exceptions;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.math.BigInteger;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * Utilities for {@link FileSystem}s
  */
 public final class FileUtils {
 
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final List<String> COMPRESSED_EXTENSIONS = Arrays.asList(".gz", ".jar", ".png", ".zip");
+
     private static final Integer DEFAULT_PERMISSIONS = 0744;
 
+    private static final int IN_MEMORY_ENTRY_SIZE = 1024 * 1024;
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
     private static final Map<PosixFilePermission, Integer> PERMISSION_MODES = FluentMap.<PosixFilePermission, Integer>builder()
         .entry(PosixFilePermission.OWNER_READ, 0400)
         .entry(PosixFilePermission.OWNER_WRITE, 0200)
@@ -56,6 +87,46 @@ public final class FileUtils {
     private FileUtils() {
     }
 
+    /**
+     * Compresses the contents of a {@link Path} into a temporary zip file.  If the {@link Path} is a directory, compresses the full contents of the directory.  If the {@link Path} is a file, the
+     * contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root.  Entries of up to 1 MiB are deflated in memory, in parallel on {@link Schedulers#parallel()}, and
+     * are written in order as they complete.  Larger entries are deflated as they are written.  Entries that are already compressed ({@code .gz}, {@code .jar}, {@code .png} and {@code .zip}) are
+     * stored as-is.  The caller is responsible for deleting the file.
+     *
+     * @param path   a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @param filter a {@link Predicate} to filter the {@link Path}s that will be added to the zip file
+     * @return a {@link Path} to the zip file
+     */
+    public static Path compress(Path path, Predicate<Path> filter) {
+        Path root = normalize(path);
+
+        try {
+            Path staging = Files.createTempFile(null, ".zip");
+
+            try (OutputStream out = Files.newOutputStream(staging)) {
+                compress(root, filter, out);
+            }
+
+            return staging;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Returns the POSIX file mode of a {@link Path} in an octal representation (e.g. {@code 644}).  If the file system does not support POSIX attributes, returns {@code 744}.
+     *
+     * @param path the {@link Path} to get the mode of
+     * @return the mode in an octal representation
+     */
+    public static String getPermissions(Path path) {
+        try {
+            return Integer.toOctalString(getUnixMode(path));
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     /**
      * Returns a relative and normalized name for a {@link Path}.  This method ensures that directories have a single trailing slash in their name
      *
@@ -68,6 +139,28 @@ public final class FileUtils {
         return Files.isDirectory(path) && !relative.toString().endsWith("/") ? String.format("%s/", relative.toString()) : relative.toString();
     }
 
+    /**
+     * Calculates the SHA-1 hash of the contents of a file
+     *
+     * @param path the {@link Path} of the file to hash
+     * @return the hash as a lower case hex string
+     */
+    public static String hash(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+
+            return String.format("%040x", new BigInteger(1, digest.digest()));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     /**
      * Returns a normalized {@link Path}.  In the case of directories, it returns the {@link Path} as it was passed in.  In the case of files, it returns a {@link Path} representing the root of a
      * filesystem mounted using {@link FileSystems#newFileSystem}.
@@ -97,6 +190,11 @@ public final class FileUtils {
     /**
      * Converts a the contents of a {@link Path} to a {@link InputStream}.  If the {@link Path} is a directory, compresses the full contents of the directory into the stream.  If the {@link Path}
      * is a file, the contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root.  This allows both exploded and compressed artifacts to be used interchangeably.
+     * <p>
+     * The contents are compressed on an elastic thread as the stream is read, so nothing is staged on disk and the first bytes are available before compression has finished.  Entries are deflated in
+     * parallel in the same way as {@link #compress(Path, Predicate)}.  The stream must be closed once it is no longer needed: closing it before it has been fully read stops the compression, but a
+     * stream that is dropped without being closed leaves the compressing thread blocked indefinitely, holding the deflated entries it has buffered.  Use {@link #compress(Path, Predicate)} when the
+     * compressed contents must be read more than once.
      *
      * @param path   a {@link Path} representing either a compressed <i>or</i> exploded artifact
      * @param filter a {@link Predicate} to filter the {@link Path}s that will be added to the {@link InputStream}
@@ -106,21 +204,87 @@ public final class FileUtils {
         Path root = normalize(path);
 
         try {
-            Path staging = Files.createTempFile(null, null);
+            CompressingInputStream in = new CompressingInputStream();
+            PipedOutputStream out = new PipedOutputStream(in);
 
-            try (Stream<Path> contents = Files.walk(root); ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
-                contents
-                    .filter(filter)
-                    .forEach(p -> write(root, p, out));
-            }
+            Schedulers.elastic().schedule(() -> {
+                try {
+                    compress(root, filter, new NonClosingOutputStream(out));
+                } catch (Throwable t) {
+                    in.failure = t;
+                } finally {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        // the reader will see the end of the stream
+                    }
+                }
+            });
 
-            return Files.newInputStream(staging);
+            return in;
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
     }
 
+    private static void compress(Path root, Predicate<Path> filter, OutputStream out) throws IOException {
+        Deque<Future<RawEntry>> pending = new ArrayDeque<>();
+
+        try (Stream<Path> contents = Files.walk(root); ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out)) {
+            Iterator<Path> paths = contents.filter(filter).iterator();
+
+            while (paths.hasNext()) {
+                Path path = paths.next();
+
+                if (Files.isSameFile(root, path)) {
+                    continue;
+                }
+
+                ZipArchiveEntry entry = getArchiveEntry(root, path);
+
+                if (Files.isDirectory(path)) {
+                    pending.add(CompletableFuture.completedFuture(new RawEntry(entry, new byte[0])));
+                } else if (Files.size(path) <= IN_MEMORY_ENTRY_SIZE) {
+                    pending.add(CompletableFuture.supplyAsync(() -> toRawEntry(entry, path), Schedulers.parallel()::schedule));
+                } else {
+                    writeRawEntries(zip, pending, 0);
+                    writeEntry(zip, entry, path);
+                }
+
+                writeRawEntries(zip, pending, 2 * PARALLELISM);
+            }
+
+            writeRawEntries(zip, pending, 0);
+        } catch (ExecutionException e) {
+            throw Exceptions.propagate(Exceptions.unwrap(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Exceptions.propagate(e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static ZipArchiveEntry getArchiveEntry(Path root, Path path) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(getRelativePathName(root, path));
+        entry.setMethod(isCompressed(path) || Files.isDirectory(path) ? ZipArchiveEntry.STORED : ZipArchiveEntry.DEFLATED);
+        entry.setUnixMode(getUnixMode(path));
+        entry.setLastModifiedTime(Files.getLastModifiedTime(path));
+
+        if (Files.isDirectory(path)) {
+            entry.setSize(0);
+            entry.setCompressedSize(0);
+            entry.setCrc(0);
+        }
+
+        return entry;
+    }
+
     private static int getUnixMode(Path path) throws IOException {
+        if (!Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            return DEFAULT_PERMISSIONS;
+        }
+
         return Optional.ofNullable(Files.readAttributes(path, PosixFileAttributes.class))
             .map(attributes -> attributes.permissions().stream()
                 .map(PERMISSION_MODES::get)
@@ -129,25 +293,124 @@ public final class FileUtils {
             .orElse(DEFAULT_PERMISSIONS);
     }
 
-    private static void write(Path root, Path path, ZipArchiveOutputStream out) {
-        try {
-            if (Files.isSameFile(root, path)) {
-                return;
-            }
+    private static boolean isCompressed(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
+        return COMPRESSED_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
 
-            ZipArchiveEntry entry = new ZipArchiveEntry(getRelativePathName(root, path));
-            entry.setUnixMode(getUnixMode(path));
-            entry.setLastModifiedTime(Files.getLastModifiedTime(path));
-            out.putArchiveEntry(entry);
+    private static RawEntry toRawEntry(ZipArchiveEntry entry, Path path) {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(BUFFER_SIZE);
+        CRC32 crc = new CRC32();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long size = 0;
 
-            if (Files.isRegularFile(path)) {
-                Files.copy(path, out);
+        try (InputStream in = Files.newInputStream(path);
+             OutputStream out = entry.getMethod() == ZipArchiveEntry.STORED ? new NonClosingOutputStream(raw) : new DeflaterOutputStream(raw, deflater, BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, length);
+                out.write(buffer, 0, length);
+                size += length;
             }
-
-            out.closeArchiveEntry();
         } catch (IOException e) {
             throw Exceptions.propagate(e);
+        } finally {
+            deflater.end();
+        }
+
+        entry.setSize(size);
+        entry.setCompressedSize(raw.size());
+        entry.setCrc(crc.getValue());
+
+        return new RawEntry(entry, raw.toByteArray());
+    }
+
+    private static void writeEntry(ZipArchiveOutputStream zip, ZipArchiveEntry entry, Path path) throws IOException {
+        if (entry.getMethod() == ZipArchiveEntry.STORED) {
+            CRC32 crc = new CRC32();
+
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int length;
+                while ((length = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, length);
+                }
+            }
+
+            entry.setSize(Files.size(path));
+            entry.setCrc(crc.getValue());
+        }
+
+        zip.putArchiveEntry(entry);
+        Files.copy(path, zip);
+        zip.closeArchiveEntry();
+    }
+
+    private static void writeRawEntries(ZipArchiveOutputStream zip, Deque<Future<RawEntry>> pending, int retained) throws ExecutionException, InterruptedException, IOException {
+        while (pending.size() > retained || (!pending.isEmpty() && pending.peek().isDone())) {
+            RawEntry rawEntry = pending.remove().get();
+            zip.addRawArchiveEntry(rawEntry.entry, new ByteArrayInputStream(rawEntry.raw));
+        }
+    }
+
+    private static final class CompressingInputStream extends PipedInputStream {
+
+        private volatile Throwable failure;
+
+        private CompressingInputStream() {
+            super(BUFFER_SIZE * 8);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return checkFailure(super.read());
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            return checkFailure(super.read(b, off, len));
+        }
+
+        private int checkFailure(int result) throws IOException {
+            if (result == -1 && this.failure != null) {
+                throw new IOException("Unable to compress contents", this.failure);
+            }
+
+            return result;
+        }
+
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
         }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+    }
+
+    private static final class RawEntry {
+
+        private final ZipArchiveEntry entry;
+
+        private final byte[] raw;
+
+        private RawEntry(ZipArchiveEntry entry, byte[] raw) {
+            this.entry = entry;
+            this.raw = raw;
+        }
+
     }
 
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * A cache of the SHA-1 hashes of files, keyed by the location of the application each file belongs to, the path of the file relative to that application, and the size and last modified time of the
+ * file.  Files whose size and last modified time have not changed since they were last hashed are not read again.  The files of a compressed application are keyed by the location of the archive, so
+ * they hit regardless of where the archive is mounted.  A cache created with {@link #create()} is held only in memory and only helps repeated pushes within a process; a cache must be created with
+ * {@link #load(Path)} for hashes to survive between runs.  A cache holds at most a maximum number of files, evicting the least recently used file when it is full.
+ */
+public final class FingerprintCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.fingerprint");
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final int HASH_LENGTH = 20;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int MAGIC = 0x43464650;
+
+    private static final int VERSION = 2;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final Map<String, Fingerprint> fingerprints;
+
+    private final Optional<Path> index;
+
+    private final int maximumSize;
+
+    private FingerprintCache(Optional<Path> index, int maximumSize, Map<String, Fingerprint> fingerprints) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be at least 1");
+        }
+
+        this.fingerprints = fingerprints;
+        this.index = index;
+        this.maximumSize = maximumSize;
+        evict();
+    }
+
+    /**
+     * Creates a cache that is held only in memory and holds at most 100,000 files
+     *
+     * @return the cache
+     */
+    public static FingerprintCache create() {
+        return create(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache that is held only in memory
+     *
+     * @param maximumSize the maximum number of files held in the cache
+     * @return the cache
+     */
+    public static FingerprintCache create(int maximumSize) {
+        return new FingerprintCache(Optional.empty(), maximumSize, newFingerprints());
+    }
+
+    /**
+     * Creates a cache backed by an index file that holds at most 100,000 files.  If the index file exists, its contents are loaded.  An index file that cannot be read is ignored and will be replaced
+     * on the next {@link #save()}.
+     *
+     * @param index the {@link Path} of the index file
+     * @return the cache
+     */
+    public static FingerprintCache load(Path index) {
+        return load(index, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache backed by an index file.  If the index file exists, its contents are loaded.  An index file that cannot be read is ignored and will be replaced on the next {@link #save()}.
+     *
+     * @param index       the {@link Path} of the index file
+     * @param maximumSize the maximum number of files held in the cache
+     * @return the cache
+     */
+    public static FingerprintCache load(Path index, int maximumSize) {
+        return new FingerprintCache(Optional.of(index), maximumSize, read(index));
+    }
+
+    /**
+     * Returns the SHA-1 hash of the contents of a file.  The file is only read if it is not in the cache or if its size or last modified time have changed since it was cached.
+     *
+     * @param root the {@link Path} of the root of the application that the file belongs to
+     * @param path the {@link Path} of the file to hash
+     * @return the hash as a lower case hex string
+     */
+    public String hash(Path root, Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String key = getKey(getPrefix(root), root, path);
+
+            Fingerprint fingerprint = get(key);
+            if (fingerprint != null && fingerprint.size == size && fingerprint.lastModified == lastModified) {
+                return fingerprint.hash;
+            }
+
+            String hash = FileUtils.hash(path);
+            put(key, new Fingerprint(hash, lastModified, size));
+
+            return hash;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Removes the files beneath a directory that are not in a collection of files, such as those that have been deleted or renamed since the directory was last scanned
+     *
+     * @param root  the {@link Path} of the directory that was scanned
+     * @param files the {@link Path}s of the files found in the directory
+     */
+    public synchronized void retain(Path root, Collection<Path> files) {
+        String prefix = getPrefix(root);
+        Set<String> keys = files.stream()
+            .map(path -> getKey(prefix, root, path))
+            .collect(Collectors.toSet());
+
+        if (this.fingerprints.keySet().removeIf(key -> key.startsWith(prefix) && !keys.contains(key))) {
+            this.dirty.set(true);
+        }
+    }
+
+    /**
+     * Writes the cache to its index file if it has changed since it was loaded or last saved.  The index file is replaced atomically.  Has no effect on a cache that is held only in memory.
+     */
+    public synchronized void save() {
+        if (!this.index.isPresent() || !this.dirty.getAndSet(false)) {
+            return;
+        }
+
+        Path index = this.index.get().toAbsolutePath();
+
+        try {
+            Files.createDirectories(index.getParent());
+            Path staging = Files.createTempFile(index.getParent(), index.getFileName().toString(), null);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(staging)))) {
+                write(out, this.fingerprints);
+            }
+
+            Files.move(staging, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            this.dirty.set(true);
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Returns the number of files in the cache
+     *
+     * @return the number of files in the cache
+     */
+    public synchronized int size() {
+        return this.fingerprints.size();
+    }
+
+    private static String getKey(String prefix, Path root, Path path) {
+        StringBuilder sb = new StringBuilder(prefix);
+
+        for (Path name : root.relativize(path)) {
+            if (sb.length() > prefix.length()) {
+                sb.append('/');
+            }
+
+            sb.append(name.toString());
+        }
+
+        return sb.toString();
+    }
+
+    private static String getPrefix(Path root) {
+        String prefix = root.toAbsolutePath().normalize().toUri().toString();
+        return prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    private static Map<String, Fingerprint> newFingerprints() {
+        return new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static Map<String, Fingerprint> read(Path index) {
+        Map<String, Fingerprint> fingerprints = newFingerprints();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.debug("Ignoring fingerprint index {} with unknown format", index);
+                return fingerprints;
+            }
+
+            for (int i = in.readInt(); i > 0; i--) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] hash = new byte[HASH_LENGTH];
+                in.readFully(hash);
+
+                fingerprints.put(key, new Fingerprint(toHex(hash), lastModified, size));
+            }
+        } catch (NoSuchFileException e) {
+            return fingerprints;
+        } catch (IOException e) {
+            LOGGER.debug("Ignoring unreadable fingerprint index {}", index, e);
+            fingerprints.clear();
+        }
+
+        return fingerprints;
+    }
+
+    private static byte[] toBytes(String hex) {
+        byte[] bytes = new byte[HASH_LENGTH];
+
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+
+        return bytes;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+
+        return new String(chars);
+    }
+
+    private static void write(DataOutputStream out, Map<String, Fingerprint> fingerprints) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(fingerprints.size());
+
+        for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().size);
+            out.writeLong(entry.getValue().lastModified);
+            out.write(toBytes(entry.getValue().hash));
+        }
+    }
+
+    private void evict() {
+        Iterator<String> keys = this.fingerprints.keySet().iterator();
+
+        for (int i = this.fingerprints.size(); i > this.maximumSize; i--) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private synchronized Fingerprint get(String key) {
+        return this.fingerprints.get(key);
+    }
+
+    private synchronized void put(String key, Fingerprint fingerprint) {
+        this.fingerprints.put(key, fingerprint);
+        this.dirty.set(true);
+        evict();
+    }
+
+    private static final class Fingerprint {
+
+        private final String hash;
+
+        private final long lastModified;
+
+        private final long size;
+
+        private Fingerprint(String hash, long lastModified, long size) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.jobs.GetJobRequest;
+import org.cloudfoundry.client.v2.jobs.GetJobResponse;
+import org.cloudfoundry.client.v2.jobs.JobEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A poller that multiplexes the status requests of all outstanding jobs onto a single schedule.  Each job is polled with its own exponential backoff, but all due jobs are polled together in
+ * rounds, with a bounded number of concurrent requests.  Rounds run only while there are outstanding jobs.  Each wait times out on its own timer rather than at the next round, and a job stops
+ * being polled once every wait for it has been cancelled or has timed out.
+ */
+final class JobPoller {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.jobs");
+
+    private final int concurrency;
+
+    private final Predicate<JobEntity> isComplete;
+
+    private final Duration maximum;
+
+    private final Duration minimum;
+
+    private final ConcurrentMap<String, PendingJob> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Duration timeout;
+
+    /**
+     * Creates a new instance
+     *
+     * @param isComplete  a {@link Predicate} indicating whether a job has completed
+     * @param concurrency the maximum number of concurrent status requests
+     * @param minimum     the minimum duration between polls of a job
+     * @param maximum     the maximum duration between polls of a job
+     * @param timeout     the maximum amount of time each wait for a job lasts
+     */
+    JobPoller(Predicate<JobEntity> isComplete, int concurrency, Duration minimum, Duration maximum, Duration timeout) {
+        this.concurrency = concurrency;
+        this.isComplete = isComplete;
+        this.maximum = maximum;
+        this.minimum = minimum;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Waits for a job to complete.  Concurrent waits for the same job share a single status request, but each wait has its own timeout.  Cancelling, or timing out, the last wait for a job stops
+     * it being polled.
+     *
+     * @param cloudFoundryClient the client to use to request job status
+     * @param jobId              the id of the job
+     * @return the completed job
+     */
+    Mono<JobEntity> waitForCompletion(CloudFoundryClient cloudFoundryClient, String jobId) {
+        return Mono.defer(() -> {
+            PendingJob job = this.pending.compute(jobId, (id, existing) -> (existing != null ? existing : new PendingJob(cloudFoundryClient, id, this.minimum)).acquire());
+            start();
+
+            return job.processor
+                .doOnCancel(() -> release(job))
+                .timeout(this.timeout, Mono.error(new DelayTimeoutException()));
+        });
+    }
+
+    int size() {
+        return this.pending.size();
+    }
+
+    private static Mono<GetJobResponse> requestJob(CloudFoundryClient cloudFoundryClient, String jobId) {
+        return cloudFoundryClient.jobs()
+            .get(GetJobRequest.builder()
+                .jobId(jobId)
+                .build());
+    }
+
+    private boolean complete(PendingJob job) {
+        return this.pending.remove(job.jobId, job);
+    }
+
+    private List<PendingJob> getDueJobs() {
+        Instant now = Instant.now();
+
+        return this.pending.values().stream()
+            .filter(job -> !now.isBefore(job.next))
+            .collect(Collectors.toList());
+    }
+
+    private Mono<Void> poll(PendingJob job) {
+        return requestJob(job.cloudFoundryClient, job.jobId)
+            .map(GetJobResponse::getEntity)
+            .doOnSuccess(entity -> {
+                if (entity != null && this.isComplete.test(entity)) {
+                    if (complete(job)) {
+                        job.processor.onNext(entity);
+                    }
+                } else {
+                    job.backOff(this.maximum);
+                }
+            })
+            .doOnError(t -> {
+                if (complete(job)) {
+                    job.processor.onError(t);
+                }
+            })
+            .otherwise(t -> Mono.empty())
+            .then();
+    }
+
+    private void release(PendingJob job) {
+        this.pending.computeIfPresent(job.jobId, (id, existing) -> {
+            if (existing != job || existing.release() > 0) {
+                return existing;
+            }
+
+            LOGGER.debug("Stopped polling job {} as all waits have been cancelled", id);
+            return null;
+        });
+    }
+
+    private void round() {
+        Flux.defer(() -> Flux.fromIterable(getDueJobs()))
+            .flatMap(this::poll, this.concurrency)
+            .subscribe(null, t -> {
+                LOGGER.debug("Job polling round failed", t);
+                schedule(this.minimum);
+            }, () -> schedule(this.minimum));
+    }
+
+    private void schedule(Duration delay) {
+        if (this.pending.isEmpty()) {
+            this.running.set(false);
+
+            if (this.pending.isEmpty() || !this.running.compareAndSet(false, true)) {
+                return;
+            }
+        }
+
+        Mono.delay(delay)
+            .subscribe(n -> round());
+    }
+
+    private void start() {
+        if (this.running.compareAndSet(false, true)) {
+            round();
+        }
+    }
+
+    private static final class PendingJob {
+
+        private final CloudFoundryClient cloudFoundryClient;
+
+        private final String jobId;
+
+        private final MonoProcessor<JobEntity> processor = MonoProcessor.create();
+
+        private volatile Duration interval;
+
+        private volatile Instant next;
+
+        private int subscribers;
+
+        private PendingJob(CloudFoundryClient cloudFoundryClient, String jobId, Duration interval) {
+            this.cloudFoundryClient = cloudFoundryClient;
+            this.interval = interval;
+            this.jobId = jobId;
+            this.next = Instant.now();
+        }
+
+        private PendingJob acquire() {
+            this.subscribers++;
+            return this;
+        }
+
+        private void backOff(Duration maximum) {
+            this.next = Instant.now().plus(this.interval);
+
+            Duration candidate = this.interval.multipliedBy(2);
+            this.interval = candidate.compareTo(maximum) <= 0 ? candidate : maximum;
+        }
+
+        private int release() {
+            return --this.subscribers;
+        }
+
+    }
+
+}
@@ -20,25 +20,29 @@ import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.ClientV2Exception;
 import org.cloudfoundry.client.v2.Resource;
 import org.cloudfoundry.client.v2.jobs.ErrorDetails;
-import org.cloudfoundry.client.v2.jobs.GetJobRequest;
-import org.cloudfoundry.client.v2.jobs.GetJobResponse;
 import org.cloudfoundry.client.v2.jobs.JobEntity;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-
-import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Utilities for Jobs
  */
 public final class JobUtils {
 
+    private static final int MAX_CONCURRENT_POLLS = 10;
+
+    private static final Map<CloudFoundryClient, JobPoller> POLLERS = Collections.synchronizedMap(new WeakHashMap<>());
+
     private JobUtils() {
     }
 
     /**
-     * Waits for a job to complete
+     * Waits for a job to complete.  Jobs are polled by a poller shared by all outstanding jobs of the same client, so that waiting for many jobs at once does not require a timer and request stream
+     * per job.
      *
      * @param cloudFoundryClient the client to use to request job status
      * @param resource           the resource representing the job
@@ -51,10 +55,7 @@ public final class JobUtils {
         if (JobUtils.isComplete(ResourceUtils.getEntity(resource))) {
             job = Mono.just(ResourceUtils.getEntity(resource));
         } else {
-            job = requestJob(cloudFoundryClient, ResourceUtils.getId(resource))
-                .map(GetJobResponse::getEntity)
-                .filter(JobUtils::isComplete)
-                .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofMinutes(5)));
+            job = getPoller(cloudFoundryClient).waitForCompletion(cloudFoundryClient, ResourceUtils.getId(resource));
         }
 
         return job
@@ -67,16 +68,13 @@ public final class JobUtils {
         return Mono.error(new ClientV2Exception(null, errorDetails.getCode(), errorDetails.getDescription(), errorDetails.getErrorCode()));
     }
 
+    private static JobPoller getPoller(CloudFoundryClient cloudFoundryClient) {
+        return POLLERS.computeIfAbsent(cloudFoundryClient, client -> new JobPoller(JobUtils::isComplete, MAX_CONCURRENT_POLLS, Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofMinutes(5)));
+    }
+
     private static boolean isComplete(JobEntity entity) {
         String status = entity.getStatus();
         return "finished".equals(status) || "failed".equals(status);
     }
 
-    private static Mono<GetJobResponse> requestJob(CloudFoundryClient cloudFoundryClient, String jobId) {
-        return cloudFoundryClient.jobs()
-            .get(GetJobRequest.builder()
-                .jobId(jobId)
-                .build());
-    }
-
 }
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.ClientV2Exception;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A cache of the ids of named resources, such as organizations, spaces, domains, applications and stacks.  Each id is scoped by the client it was looked up with, the type of the resource and the id
+ * of its containing resource, so that a cache shared between clients never mixes foundations.  Entries expire after a time-to-live and the least recently used entries are evicted once the cache is
+ * full.  Failed and empty lookups are never cached.  Callers that rename or delete a resource should {@link #invalidate(CloudFoundryClient, String, String, String)} its entry, and operations that
+ * use cached ids should be wrapped with {@link #invalidateOnNotFound(Mono)} so that an id made stale by another client is looked up again by the next operation.  Operations are never retried,
+ * because an operation that fails part way through may already have made changes that must not be repeated.
+ */
+public final class NameCache {
+
+    /**
+     * The type of application entries, scoped by space id
+     */
+    public static final String APPLICATION = "application";
+
+    /**
+     * The type of domain entries, scoped by organization id
+     */
+    public static final String DOMAIN = "domain";
+
+    /**
+     * The type of organization entries, which are not scoped
+     */
+    public static final String ORGANIZATION = "organization";
+
+    /**
+     * The type of space entries, scoped by organization id
+     */
+    public static final String SPACE = "space";
+
+    /**
+     * The type of stack entries, which are not scoped
+     */
+    public static final String STACK = "stack";
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    private final Map<Key, Entry> entries;
+
+    private final int maximumSize;
+
+    private final Duration ttl;
+
+    private NameCache(Duration ttl, int maximumSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates a cache whose entries live for five minutes, holding at most 1000 entries
+     *
+     * @return the cache
+     */
+    public static NameCache create() {
+        return create(DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param ttl         the time-to-live of each entry
+     * @param maximumSize the maximum number of entries
+     * @return the cache
+     */
+    public static NameCache create(Duration ttl, int maximumSize) {
+        return new NameCache(ttl, maximumSize);
+    }
+
+    /**
+     * Creates a cache that never holds an entry, so that every lookup is performed
+     *
+     * @return the cache
+     */
+    public static NameCache disabled() {
+        return new NameCache(Duration.ZERO, 0);
+    }
+
+    /**
+     * Returns the id of a named resource, performing the lookup if the id is not cached
+     *
+     * @param cloudFoundryClient the client the lookup is performed with
+     * @param type               the type of the resource
+     * @param scope              the id of the resource containing the named resource, or {@code null} if the resource is global
+     * @param name               the name of the resource
+     * @param lookup             the lookup to perform if the id is not cached
+     * @return the id of the resource
+     */
+    public Mono<String> get(CloudFoundryClient cloudFoundryClient, String type, String scope, String name, Mono<String> lookup) {
+        if (this.maximumSize == 0) {
+            return lookup;
+        }
+
+        return Mono.defer(() -> {
+            Key key = new Key(cloudFoundryClient, type, scope, name);
+            Instant now = Instant.now();
+
+            synchronized (this.entries) {
+                Entry entry = this.entries.get(key);
+                if (entry != null && now.isBefore(entry.expiry)) {
+                    entry.served = now;
+                    return entry.id;
+                }
+
+                Entry candidate = new Entry(now.plus(this.ttl));
+                candidate.id = lookup
+                    .doOnSuccess(id -> {
+                        if (id == null) {
+                            remove(key, candidate);
+                        }
+                    })
+                    .doOnError(t -> remove(key, candidate))
+                    .cache();
+
+                this.entries.put(key, candidate);
+                evict(now);
+
+                return candidate.id;
+            }
+        });
+    }
+
+    /**
+     * Removes the entry for a named resource
+     *
+     * @param cloudFoundryClient the client the lookup was performed with
+     * @param type               the type of the resource
+     * @param scope              the id of the resource containing the named resource, or {@code null} if the resource is global
+     * @param name               the name of the resource
+     */
+    public void invalidate(CloudFoundryClient cloudFoundryClient, String type, String scope, String name) {
+        synchronized (this.entries) {
+            this.entries.remove(new Key(cloudFoundryClient, type, scope, name));
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Performs an operation that uses cached ids.  If Cloud Foundry reports that a resource was not found (an error code such as {@code CF-AppNotFound}), every entry served to the operation is
+     * removed, so that an id made stale by another client is looked up again by the next operation, and the error is propagated.
+     *
+     * @param operation the operation
+     * @param <T>       the type of the operation's result
+     * @return the operation
+     */
+    public <T> Mono<T> invalidateOnNotFound(Mono<T> operation) {
+        if (this.maximumSize == 0) {
+            return operation;
+        }
+
+        return Mono.defer(() -> {
+            Instant start = Instant.now();
+
+            return operation
+                .doOnError(t -> {
+                    if (isNotFound(t)) {
+                        invalidateServedSince(start);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Returns the number of entries in the cache, including those that have expired but not yet been evicted
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private void evict(Instant now) {
+        Iterator<Entry> iterator = this.entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (this.entries.size() > this.maximumSize || !now.isBefore(entry.expiry)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isNotFound(Throwable t) {
+        return t instanceof ClientV2Exception && Optional.ofNullable(((ClientV2Exception) t).getErrorCode()).filter(errorCode -> errorCode.endsWith("NotFound")).isPresent();
+    }
+
+    private void invalidateServedSince(Instant start) {
+        synchronized (this.entries) {
+            Iterator<Entry> iterator = this.entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                Instant served = iterator.next().served;
+
+                if (served != null && !served.isBefore(start)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        synchronized (this.entries) {
+            this.entries.remove(key, entry);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Instant expiry;
+
+        private Mono<String> id;
+
+        private Instant served;
+
+        private Entry(Instant expiry) {
+            this.expiry = expiry;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final CloudFoundryClient cloudFoundryClient;
+
+        private final String name;
+
+        private final String scope;
+
+        private final String type;
+
+        private Key(CloudFoundryClient cloudFoundryClient, String type, String scope, String name) {
+            this.cloudFoundryClient = cloudFoundryClient;
+            this.name = name;
+            this.scope = scope;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.cloudFoundryClient == key.cloudFoundryClient && Objects.equals(this.name, key.name) && Objects.equals(this.scope, key.scope) && Objects.equals(this.type, key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.cloudFoundryClient), this.name, this.scope, this.type);
+        }
+
+    }
+
+}
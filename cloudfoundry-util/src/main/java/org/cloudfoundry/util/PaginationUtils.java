@@ -18,7 +18,10 @@ package org.cloudfoundry.util;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.util.function.Tuple2;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -27,11 +30,16 @@ import java.util.function.Function;
  */
 public final class PaginationUtils {
 
+    /**
+     * The default maximum number of pages requested concurrently
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
     private PaginationUtils() {
     }
 
     /**
-     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  At most {@value #DEFAULT_CONCURRENCY} pages are requested concurrently.
      *
      * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
      * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
@@ -41,76 +49,229 @@ public final class PaginationUtils {
     public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
         Function<Integer, Mono<U>> pageSupplier) {
 
+        return requestClientV2Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Pages are emitted in order as soon as each one (and all of those before it) is
+     * available.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
+        Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV2AdditionalPages(pageSupplier))
+            .flatMap(requestClientV2AdditionalPages(pageSupplier, concurrency))
             .flatMap(ResourceUtils::getResources);
     }
 
     /**
-     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Each page is only requested once every resource of the previous page has been
+     * delivered, so no further pages are requested once the subscriber is satisfied (e.g. with {@link Flux#next()} or {@link Flux#take(long)}) and any outstanding page request is cancelled.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2ResourcesOnDemand(
+        Function<Integer, Mono<U>> pageSupplier) {
+
+        return requestResourcesOnDemand(pageSupplier, response -> response.getResources(), response -> Flux
+            .range(2, Optional.ofNullable(response.getTotalPages()).orElse(1) - 1));
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of pages obtained from the page supplier, where each page is a stream of its resources paired with the page.  At most {@value
+     * #DEFAULT_CONCURRENCY} pages are requested concurrently.
+     *
+     * @param pageSupplier a function from integers to {@link Flux}es of resources, each paired with its {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2ResourcesStreaming(
+        Function<Integer, Flux<Tuple2<U, T>>> pageSupplier) {
+
+        return requestClientV2ResourcesStreaming(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of pages obtained from the page supplier, where each page is a stream of its resources paired with the page.  Each resource is
+     * emitted as soon as it is supplied, so the first resources are delivered before the first page has been read completely.  The additional pages are requested once the first resource of the
+     * first page arrives and are emitted in order.
+     *
+     * @param pageSupplier a function from integers to {@link Flux}es of resources, each paired with its {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param concurrency  the maximum number of additional pages to request concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2ResourcesStreaming(
+        Function<Integer, Flux<Tuple2<U, T>>> pageSupplier, int concurrency) {
+
+        return Flux.defer(() -> {
+            MonoProcessor<Integer> totalPages = MonoProcessor.create();
+
+            Flux<T> first = pageSupplier
+                .apply(1)
+                .doOnNext(tuple -> {
+                    if (!totalPages.isTerminated()) {
+                        totalPages.onNext(Optional.ofNullable(tuple.getT1().getTotalPages()).orElse(1));
+                    }
+                })
+                .doOnComplete(() -> {
+                    if (!totalPages.isTerminated()) {
+                        totalPages.onComplete();
+                    }
+                })
+                .map(Tuple2::getT2);
+
+            Flux<T> additional = totalPages
+                .flatMap(pages -> Flux.range(2, pages - 1))
+                .flatMapSequential(page -> pageSupplier
+                    .apply(page)
+                    .map(Tuple2::getT2), concurrency);
+
+            return Flux.just(first, additional)
+                .flatMapSequential(resources -> resources);
+        });
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  At most {@value #DEFAULT_CONCURRENCY} pages are requested concurrently.
      *
      * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
      * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
      * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestClientV3Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Pages are emitted in order as soon as each one (and all of those before it) is
+     * available.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV3AdditionalPages(pageSupplier))
+            .flatMap(requestClientV3AdditionalPages(pageSupplier, concurrency))
             .flatMapIterable(org.cloudfoundry.client.v3.PaginatedResponse::getResources);
     }
 
     /**
-     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Each page is only requested once every resource of the previous page has been
+     * delivered, so no further pages are requested once the subscriber is satisfied (e.g. with {@link Flux#next()} or {@link Flux#take(long)}) and any outstanding page request is cancelled.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3ResourcesOnDemand(Function<Integer, Mono<U>> pageSupplier) {
+        return requestResourcesOnDemand(pageSupplier, response -> response.getResources(), response -> Flux
+            .range(2, Optional.ofNullable(response.getPagination().getTotalPages()).orElse(1) - 1));
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  At most {@value #DEFAULT_CONCURRENCY} pages are requested concurrently.
      *
      * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
      * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
      * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestUaaResources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Pages are emitted in order as soon as each one (and all of those before it) is
+     * available.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages to request concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
         return pageSupplier
             .apply(1)
-            .flatMap(requestUaaAdditionalPages(pageSupplier))
+            .flatMap(requestUaaAdditionalPages(pageSupplier, concurrency))
             .flatMapIterable(org.cloudfoundry.uaa.PaginatedResponse::getResources);
     }
 
-    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier) {
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Each page is only requested once every resource of the previous page has been
+     * delivered, so no further pages are requested once the subscriber is satisfied (e.g. with {@link Flux#next()} or {@link Flux#take(long)}) and any outstanding page request is cancelled.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResourcesOnDemand(Function<Integer, Mono<U>> pageSupplier) {
+        return requestResourcesOnDemand(pageSupplier, response -> response.getResources(), response -> Flux
+            .range(1, (response.getTotalResults() - 1) / response.getItemsPerPage())
+            .map(page -> 1 + (page * response.getItemsPerPage())));
+    }
+
+    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier, int concurrency) {
         return response -> {
             Integer totalPages = Optional.ofNullable(totalPagesSupplier.apply(response)).orElse(1);
 
             return Flux
                 .range(2, totalPages - 1)
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+                .flatMapSequential(pageSupplier, concurrency)
+                .startWith(response);
         };
     }
 
-    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages());
+    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages(), concurrency);
+    }
+
+    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages(), concurrency);
     }
 
-    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages());
+    private static <T, U> Flux<T> requestResourcesOnDemand(Function<Integer, Mono<U>> pageSupplier, Function<U, List<T>> resourcesSupplier, Function<U, Flux<Integer>> additionalPagesSupplier) {
+        return pageSupplier
+            .apply(1)
+            .flatMap(response -> Flux
+                .fromIterable(resourcesSupplier.apply(response))
+                .concatWith(additionalPagesSupplier.apply(response)
+                    .concatMap(page -> pageSupplier
+                        .apply(page)
+                        .flatMap(additionalResponse -> Flux.fromIterable(resourcesSupplier.apply(additionalResponse))), 1)));
     }
 
-    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
+    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
         return response -> {
             Integer totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
 
             return Flux
                 .range(1, totalPages - 1)
                 .map(page -> 1 + (page * response.getItemsPerPage()))
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+                .flatMapSequential(pageSupplier, concurrency)
+                .startWith(response);
         };
     }
 
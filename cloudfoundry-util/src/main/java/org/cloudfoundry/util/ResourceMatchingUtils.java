@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.applications.Resource;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utilities for matching application files against the resources Cloud Foundry already has
+ */
+public final class ResourceMatchingUtils {
+
+    private ResourceMatchingUtils() {
+    }
+
+    /**
+     * Returns the fingerprints of the files in an application that Cloud Foundry already has and that therefore do not need to be uploaded
+     *
+     * @param cloudFoundryClient the client to use to match resources
+     * @param application        a {@link Path} representing either a compressed <i>or</i> exploded application
+     * @return the fingerprints of the files that matched
+     */
+    public static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application) {
+        return getMatchedResources(cloudFoundryClient, application, FingerprintCache.create());
+    }
+
+    /**
+     * Returns the fingerprints of the files in an application that Cloud Foundry already has and that therefore do not need to be uploaded
+     *
+     * @param cloudFoundryClient the client to use to match resources
+     * @param application        a {@link Path} representing either a compressed <i>or</i> exploded application
+     * @param fingerprintCache   the cache to consult for the hashes of unchanged files
+     * @return the fingerprints of the files that matched
+     */
+    public static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application, FingerprintCache fingerprintCache) {
+        return getResources(application, fingerprintCache)
+            .collectList()
+            .then(resources -> requestListMatchingResources(cloudFoundryClient, resources)
+                .map(response -> getHashes(response.getResources()))
+                .map(hashes -> resources.stream()
+                    .filter(resource -> hashes.contains(resource.getHash()))
+                    .collect(Collectors.toList())));
+    }
+
+    /**
+     * Returns the fingerprints (SHA-1, size, mode and relative path) of the files in an application.  Files are hashed on an elastic thread.
+     *
+     * @param application a {@link Path} representing either a compressed <i>or</i> exploded application
+     * @return the fingerprints of the files
+     */
+    public static Flux<Resource> getResources(Path application) {
+        return getResources(application, FingerprintCache.create());
+    }
+
+    /**
+     * Returns the fingerprints (SHA-1, size, mode and relative path) of the files in an application.  Files that are not in the cache, or that have changed, are hashed in parallel on the common
+     * {@link ForkJoinPool}.  Files that are no longer in the application are removed from the cache, and the cache is saved, once all files have been fingerprinted.
+     *
+     * @param application      a {@link Path} representing either a compressed <i>or</i> exploded application
+     * @param fingerprintCache the cache to consult for the hashes of unchanged files
+     * @return the fingerprints of the files
+     */
+    public static Flux<Resource> getResources(Path application, FingerprintCache fingerprintCache) {
+        return Mono
+            .fromCallable(() -> {
+                Path root = FileUtils.normalize(application);
+                List<Path> files = getFiles(root);
+
+                List<Resource> resources = ForkJoinPool.commonPool()
+                    .submit(() -> files.parallelStream()
+                        .map(path -> getResource(fingerprintCache, root, path))
+                        .collect(Collectors.toList()))
+                    .get();
+
+                fingerprintCache.retain(root, files);
+                fingerprintCache.save();
+                return resources;
+            })
+            .otherwise(ExecutionException.class, t -> Mono.error(t.getCause()))
+            .flatMapIterable(resources -> resources)
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    private static List<Path> getFiles(Path root) {
+        try (Stream<Path> contents = Files.walk(root)) {
+            return contents
+                .filter(Files::isRegularFile)
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static Set<String> getHashes(List<org.cloudfoundry.client.v2.resourcematch.Resource> resources) {
+        return resources.stream()
+            .map(org.cloudfoundry.client.v2.resourcematch.Resource::getHash)
+            .collect(Collectors.toSet());
+    }
+
+    private static Resource getResource(FingerprintCache fingerprintCache, Path root, Path path) {
+        try {
+            return Resource.builder()
+                .hash(fingerprintCache.hash(root, path))
+                .mode(FileUtils.getPermissions(path))
+                .path(FileUtils.getRelativePathName(root, path))
+                .size((int) Files.size(path))
+                .build();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static Mono<ListMatchingResourcesResponse> requestListMatchingResources(CloudFoundryClient cloudFoundryClient, List<Resource> resources) {
+        return cloudFoundryClient.resourceMatch()
+            .list(ListMatchingResourcesRequest.builder()
+                .resources(resources.stream()
+                    .map(resource -> org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash(resource.getHash())
+                        .mode(resource.getMode())
+                        .size(resource.getSize())
+                        .build())
+                    .collect(Collectors.toList()))
+                .build());
+    }
+
+}
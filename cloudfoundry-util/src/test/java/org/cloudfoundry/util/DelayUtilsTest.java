@@ -18,6 +18,7 @@ package org.cloudfoundry.util;
 
 import org.junit.Test;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -96,6 +97,21 @@ public final class DelayUtilsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void exponentialBackOffSignals() {
+        DirectProcessor<Object> signals = DirectProcessor.create();
+
+        StepVerifier.withVirtualTime(() -> (Publisher<Long>) DelayUtils.exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(5), signals)
+            .apply(Flux.just(1L, 2L)))
+            .then(() -> signals.onNext(new Object()))
+            .expectNext(0L)
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(4)))
+            .expectNext(0L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void exponentialBackOffTimeout() {
         StepVerifier.create(DelayUtils.exponentialBackOff(Duration.ofMillis(500), Duration.ofMillis(500), Duration.ofMillis(100))
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class FileUtilsTest {
+
+    private final Path root = createTempDirectory();
+
+    @Test
+    public void compress() throws IOException {
+        Map<String, byte[]> expected = createApplication();
+        Path archive = FileUtils.compress(this.root, path -> true);
+
+        try {
+            assertEntries(expected, readEntries(archive));
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    public void compressStoresCompressedEntries() throws IOException {
+        createApplication();
+        Path archive = FileUtils.compress(this.root, path -> true);
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            assertEquals(ZipArchiveEntry.STORED, zipFile.getEntry("lib/library.jar").getMethod());
+            assertEquals(ZipArchiveEntry.STORED, zipFile.getEntry("static/image.png").getMethod());
+            assertEquals(ZipArchiveEntry.STORED, zipFile.getEntry("large.zip").getMethod());
+            assertEquals(ZipArchiveEntry.DEFLATED, zipFile.getEntry("file-0.txt").getMethod());
+            assertEquals(ZipArchiveEntry.DEFLATED, zipFile.getEntry("large.txt").getMethod());
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @After
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> contents = Files.walk(this.root)) {
+            contents
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void toInputStream() throws IOException {
+        Map<String, byte[]> expected = createApplication();
+        Map<String, byte[]> actual = new TreeMap<>();
+
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(FileUtils.toInputStream(this.root))) {
+            ZipArchiveEntry entry;
+            while ((entry = in.getNextZipEntry()) != null) {
+                actual.put(entry.getName(), IOUtils.toByteArray(in));
+            }
+        }
+
+        assertEntries(expected, actual);
+    }
+
+    @Test
+    public void toInputStreamMatchesCompress() throws IOException {
+        createApplication();
+        Path archive = FileUtils.compress(this.root, path -> true);
+
+        try (InputStream in = FileUtils.toInputStream(this.root)) {
+            assertArrayEquals(Files.readAllBytes(archive), IOUtils.toByteArray(in));
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    private static void assertEntries(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((name, content) -> assertArrayEquals(name, content, actual.get(name)));
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("file-utils");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, byte[]> readEntries(Path archive) throws IOException {
+        Map<String, byte[]> entries = new TreeMap<>();
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    entries.put(entry.getName(), IOUtils.toByteArray(in));
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    private Map<String, byte[]> createApplication() throws IOException {
+        Map<String, byte[]> entries = new TreeMap<>();
+        Random random = new Random(0);
+
+        for (int i = 0; i < 50; i++) {
+            entries.put(String.format("file-%d.txt", i), String.format("test-content-%d\n", i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] large = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) ('a' + random.nextInt(4));
+        }
+        entries.put("large.txt", large);
+
+        byte[] binary = new byte[2 * 1024 * 1024];
+        random.nextBytes(binary);
+        entries.put("large.zip", binary);
+
+        entries.put("lib/library.jar", new byte[]{1, 2, 3, 4});
+        entries.put("static/image.png", new byte[]{5, 6, 7, 8});
+
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Path path = this.root.resolve(entry.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, entry.getValue());
+        }
+
+        entries.put("lib/", new byte[0]);
+        entries.put("static/", new byte[0]);
+
+        return entries;
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public final class FingerprintCacheTest {
+
+    private static final String TEST_CONTENT_HASH = "b971c6ef19b1d70ae8f0feb989b106c319b36230";
+
+    private final Path root = createTempDirectory();
+
+    @After
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> contents = Files.walk(this.root)) {
+            contents
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void hash() throws IOException {
+        Path file = createFile("test-content\n");
+
+        FingerprintCache cache = FingerprintCache.create();
+
+        assertEquals(TEST_CONTENT_HASH, cache.hash(this.root, file));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void hashChanged() throws IOException {
+        Path file = createFile("test-content\n");
+
+        FingerprintCache cache = FingerprintCache.create();
+        cache.hash(this.root, file);
+
+        Files.write(file, "other-content\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+        assertEquals(FileUtils.hash(file), cache.hash(this.root, file));
+    }
+
+    @Test
+    public void hashCompressed() throws IOException {
+        Path archive = this.root.resolve("test-archive.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive))) {
+            out.putNextEntry(new ZipEntry("test-file"));
+            out.write("test-content\n".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        FingerprintCache cache = FingerprintCache.create();
+
+        for (int i = 0; i < 2; i++) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(archive, null)) {
+                Path root = fileSystem.getPath("/");
+                assertEquals(TEST_CONTENT_HASH, cache.hash(root, root.resolve("test-file")));
+            }
+        }
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void hashEvictsLeastRecentlyUsed() throws IOException {
+        Path first = createFile("first-file", "first-content\n");
+        Path second = createFile("second-file", "second-content\n");
+        Path third = createFile("third-file", "third-content\n");
+
+        FingerprintCache cache = FingerprintCache.create(2);
+        cache.hash(this.root, first);
+        cache.hash(this.root, second);
+        cache.hash(this.root, first);
+        cache.hash(this.root, third);
+
+        assertEquals(2, cache.size());
+
+        FileTime lastModified = Files.getLastModifiedTime(first);
+        Files.write(first, "first-CONTENT\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(first, lastModified);
+
+        assertEquals(FileUtils.hash(createFile("expected-file", "first-content\n")), cache.hash(this.root, first));
+    }
+
+    @Test
+    public void hashUnchanged() throws IOException {
+        Path file = createFile("test-content\n");
+        FileTime lastModified = Files.getLastModifiedTime(file);
+
+        FingerprintCache cache = FingerprintCache.create();
+        cache.hash(this.root, file);
+
+        Files.write(file, "test-CONTENT\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, lastModified);
+
+        assertEquals(TEST_CONTENT_HASH, cache.hash(this.root, file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaximumSize() {
+        FingerprintCache.create(0);
+    }
+
+    @Test
+    public void loadCorrupt() throws IOException {
+        Path index = this.root.resolve("index");
+        Files.write(index, "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, FingerprintCache.load(index).size());
+    }
+
+    @Test
+    public void loadMissing() {
+        assertEquals(0, FingerprintCache.load(this.root.resolve("index")).size());
+    }
+
+    @Test
+    public void retain() throws IOException {
+        Path deleted = createFile("deleted-file", "deleted-content\n");
+        Path kept = createFile("kept-file", "kept-content\n");
+        Path other = Files.createTempFile("fingerprint-cache", null);
+
+        try {
+            FingerprintCache cache = FingerprintCache.create();
+            cache.hash(this.root, deleted);
+            cache.hash(this.root, kept);
+            cache.hash(other.getParent(), other);
+
+            Files.delete(deleted);
+            cache.retain(this.root, Collections.singletonList(kept));
+
+            assertEquals(2, cache.size());
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test
+    public void save() throws IOException {
+        Path file = createFile("test-content\n");
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Path index = this.root.resolve("cache").resolve("index");
+
+        FingerprintCache cache = FingerprintCache.load(index);
+        cache.hash(this.root, file);
+        cache.save();
+
+        Files.write(file, "test-CONTENT\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, lastModified);
+
+        FingerprintCache loaded = FingerprintCache.load(index);
+        assertEquals(1, loaded.size());
+        assertEquals(TEST_CONTENT_HASH, loaded.hash(this.root, file));
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("fingerprint-cache");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path createFile(String content) throws IOException {
+        return createFile("test-file", content);
+    }
+
+    private Path createFile(String name, String content) throws IOException {
+        return Files.write(this.root.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
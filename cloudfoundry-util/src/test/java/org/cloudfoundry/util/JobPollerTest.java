@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.jobs.GetJobRequest;
+import org.cloudfoundry.client.v2.jobs.GetJobResponse;
+import org.cloudfoundry.client.v2.jobs.JobEntity;
+import org.cloudfoundry.client.v2.jobs.Jobs;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class JobPollerTest {
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final Jobs jobs = mock(Jobs.class, RETURNS_SMART_NULLS);
+
+    private final JobPoller poller = new JobPoller(entity -> "finished".equals(entity.getStatus()), 2, Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(100));
+
+    @Before
+    public void mockClient() {
+        when(this.cloudFoundryClient.jobs()).thenReturn(this.jobs);
+    }
+
+    @Test
+    public void waitForCompletion() {
+        requestJob(this.jobs, "test-job-id-1", "finished");
+        requestJob(this.jobs, "test-job-id-2", "finished");
+
+        StepVerifier.create(this.poller.waitForCompletion(this.cloudFoundryClient, "test-job-id-1")
+            .and(this.poller.waitForCompletion(this.cloudFoundryClient, "test-job-id-2")))
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.jobs, times(1)).get(GetJobRequest.builder().jobId("test-job-id-1").build());
+        verify(this.jobs, times(1)).get(GetJobRequest.builder().jobId("test-job-id-2").build());
+        assertEquals(0, this.poller.size());
+    }
+
+    @Test
+    public void waitForCompletionCancel() {
+        requestJob(this.jobs, "test-job-id", "running");
+        JobPoller poller = new JobPoller(entity -> "finished".equals(entity.getStatus()), 2, Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        Disposable first = poller.waitForCompletion(this.cloudFoundryClient, "test-job-id").subscribe();
+        Disposable second = poller.waitForCompletion(this.cloudFoundryClient, "test-job-id").subscribe();
+
+        first.dispose();
+        assertEquals(1, poller.size());
+
+        second.dispose();
+        assertEquals(0, poller.size());
+    }
+
+    @Test
+    public void waitForCompletionTimeout() {
+        requestJob(this.jobs, "test-job-id", "running");
+
+        Duration elapsed = StepVerifier.create(this.poller.waitForCompletion(this.cloudFoundryClient, "test-job-id"))
+            .expectError(DelayTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertTrue("Timed out at the next round rather than the deadline", elapsed.compareTo(Duration.ofMillis(500)) < 0);
+        assertEquals(0, this.poller.size());
+    }
+
+    @Test
+    public void waitForCompletionTimeoutPerWait() throws InterruptedException {
+        requestJob(this.jobs, "test-job-id", "running");
+        JobPoller poller = new JobPoller(entity -> "finished".equals(entity.getStatus()), 2, Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofMillis(500));
+
+        poller.waitForCompletion(this.cloudFoundryClient, "test-job-id").subscribe(null, t -> {
+        });
+        Thread.sleep(300);
+
+        Duration elapsed = StepVerifier.create(poller.waitForCompletion(this.cloudFoundryClient, "test-job-id"))
+            .expectError(DelayTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertTrue("Timed out with the first wait rather than on its own timer", elapsed.compareTo(Duration.ofMillis(400)) >= 0);
+        assertEquals(0, poller.size());
+    }
+
+    private static void requestJob(Jobs jobs, String jobId, String status) {
+        when(jobs
+            .get(GetJobRequest.builder()
+                .jobId(jobId)
+                .build()))
+            .thenReturn(Mono
+                .just(GetJobResponse.builder()
+                    .entity(JobEntity.builder()
+                        .id(jobId)
+                        .status(status)
+                        .build())
+                    .build()));
+    }
+
+}
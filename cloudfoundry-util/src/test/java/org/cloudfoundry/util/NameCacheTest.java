@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.ClientV2Exception;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public final class NameCacheTest {
+
+    private static final CloudFoundryClient CLOUD_FOUNDRY_CLIENT = mock(CloudFoundryClient.class);
+
+    private final NameCache cache = NameCache.create(Duration.ofMinutes(1), 2);
+
+    @Test
+    public void get() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(this.cache, "test-name", lookups, "test-id");
+        getId(this.cache, "test-name", lookups, "test-id");
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void getClients() {
+        CloudFoundryClient otherCloudFoundryClient = mock(CloudFoundryClient.class);
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(this.cache, CLOUD_FOUNDRY_CLIENT, "test-name", lookups, "test-id-1");
+        getId(this.cache, otherCloudFoundryClient, "test-name", lookups, "test-id-2");
+        getId(this.cache, CLOUD_FOUNDRY_CLIENT, "test-name", lookups, "test-id-1");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void getDisabled() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(NameCache.disabled(), "test-name", lookups, "test-id");
+        getId(NameCache.disabled(), "test-name", lookups, "test-id");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void getError() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        StepVerifier.create(this.cache.get(CLOUD_FOUNDRY_CLIENT, NameCache.APPLICATION, "test-space-id", "test-name", Mono.defer(() -> {
+            lookups.incrementAndGet();
+            return Mono.<String>error(new IllegalArgumentException());
+        })))
+            .expectError(IllegalArgumentException.class)
+            .verify(Duration.ofSeconds(5));
+
+        getId(this.cache, "test-name", lookups, "test-id");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void getExpired() {
+        NameCache cache = NameCache.create(Duration.ofMillis(-1), 2);
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(cache, "test-name", lookups, "test-id");
+        getId(cache, "test-name", lookups, "test-id");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void getMaximumSize() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(this.cache, "test-name-1", lookups, "test-id-1");
+        getId(this.cache, "test-name-2", lookups, "test-id-2");
+        getId(this.cache, "test-name-3", lookups, "test-id-3");
+
+        assertEquals(2, this.cache.size());
+
+        getId(this.cache, "test-name-1", lookups, "test-id-1");
+
+        assertEquals(4, lookups.get());
+    }
+
+    @Test
+    public void invalidate() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        getId(this.cache, "test-name", lookups, "test-id");
+        this.cache.invalidate(CLOUD_FOUNDRY_CLIENT, NameCache.APPLICATION, "test-space-id", "test-name");
+        getId(this.cache, "test-name", lookups, "test-id");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void invalidateOnNotFound() {
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger requests = new AtomicInteger();
+
+        getId(this.cache, "test-name", lookups, "test-id");
+
+        StepVerifier.create(this.cache.invalidateOnNotFound(getId(this.cache, lookups)
+            .then(id -> {
+                requests.incrementAndGet();
+                return Mono.<String>error(new ClientV2Exception(404, 100004, "test-description", "CF-AppNotFound"));
+            })))
+            .expectError(ClientV2Exception.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, requests.get());
+        assertEquals(0, this.cache.size());
+    }
+
+    @Test
+    public void invalidateOnNotFoundOtherError() {
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger requests = new AtomicInteger();
+
+        getId(this.cache, "test-name", lookups, "test-id");
+
+        StepVerifier.create(this.cache.invalidateOnNotFound(getId(this.cache, lookups)
+            .then(id -> {
+                requests.incrementAndGet();
+                return Mono.<String>error(new ClientV2Exception(403, 10003, "test-description", "CF-NotAuthorized"));
+            })))
+            .expectError(ClientV2Exception.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, requests.get());
+        assertEquals(1, this.cache.size());
+    }
+
+    private static Mono<String> getId(NameCache cache, AtomicInteger lookups) {
+        return Mono.defer(() -> cache.get(CLOUD_FOUNDRY_CLIENT, NameCache.APPLICATION, "test-space-id", "test-name", Mono.fromCallable(() -> {
+            lookups.incrementAndGet();
+            return "test-id";
+        })));
+    }
+
+    private static void getId(NameCache cache, String name, AtomicInteger lookups, String id) {
+        getId(cache, CLOUD_FOUNDRY_CLIENT, name, lookups, id);
+    }
+
+    private static void getId(NameCache cache, CloudFoundryClient cloudFoundryClient, String name, AtomicInteger lookups, String id) {
+        StepVerifier.create(cache.get(cloudFoundryClient, NameCache.APPLICATION, "test-space-id", name, Mono.fromCallable(() -> {
+            lookups.incrementAndGet();
+            return id;
+        })))
+            .expectNext(id)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+}
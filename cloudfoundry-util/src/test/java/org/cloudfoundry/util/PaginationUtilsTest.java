@@ -33,15 +33,22 @@ import org.cloudfoundry.uaa.users.Name;
 import org.cloudfoundry.uaa.users.User;
 import org.cloudfoundry.uaa.users.Users;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.time.Duration;
 import java.util.Collections;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class PaginationUtilsTest {
@@ -65,6 +72,69 @@ public final class PaginationUtilsTest {
             .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesOnDemand() throws InterruptedException, TimeoutException {
+        Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+
+        requestListSpaces(spaces, 1, 3);
+        requestListSpaces(spaces, 2, 3);
+        requestListSpaces(spaces, 3, 3);
+
+        PaginationUtils
+            .requestClientV2ResourcesOnDemand(page -> spaces
+                .list(ListSpacesRequest.builder()
+                    .page(page)
+                    .build()))
+            .as(StepVerifier::create)
+            .expectNextCount(3)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestClientV2ResourcesOnDemandFirst() throws InterruptedException, TimeoutException {
+        Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+
+        requestListSpaces(spaces, 1, 3);
+        requestListSpaces(spaces, 2, 3);
+        requestListSpaces(spaces, 3, 3);
+
+        PaginationUtils
+            .requestClientV2ResourcesOnDemand(page -> spaces
+                .list(ListSpacesRequest.builder()
+                    .page(page)
+                    .build()))
+            .next()
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        verify(spaces, never()).list(ListSpacesRequest.builder()
+            .page(2)
+            .build());
+    }
+
+    @Test
+    public void requestClientV2ResourcesOrdered() throws InterruptedException, TimeoutException {
+        Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+
+        requestListSpaces(spaces, 1, 3);
+        requestListSpaces(spaces, 2, 3, Duration.ofMillis(200));
+        requestListSpaces(spaces, 3, 3);
+
+        PaginationUtils
+            .requestClientV2Resources(page -> spaces
+                .list(ListSpacesRequest.builder()
+                    .page(page)
+                    .build()), 2)
+            .map(resource -> ResourceUtils.getEntity(resource).getName())
+            .as(StepVerifier::create)
+            .expectNext("1", "2", "3")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV2ResourcesEmpty() throws InterruptedException, TimeoutException {
         Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
@@ -81,6 +151,44 @@ public final class PaginationUtilsTest {
             .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesStreaming() {
+        PaginationUtils
+            .requestClientV2ResourcesStreaming(page -> streamListSpaces(page, 3, Flux.empty()), 2)
+            .map(resource -> ResourceUtils.getEntity(resource).getName())
+            .as(StepVerifier::create)
+            .expectNext("1-1", "1-2", "2-1", "2-2", "3-1", "3-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestClientV2ResourcesStreamingEmpty() {
+        AtomicInteger pages = new AtomicInteger();
+
+        PaginationUtils
+            .requestClientV2ResourcesStreaming(page -> {
+                pages.incrementAndGet();
+                return Flux.<Tuple2<ListSpacesResponse, SpaceResource>>empty();
+            })
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, pages.get());
+    }
+
+    @Test
+    public void requestClientV2ResourcesStreamingFirst() {
+        PaginationUtils
+            .requestClientV2ResourcesStreaming(page -> streamListSpaces(page, 1, Flux.never()))
+            .map(resource -> ResourceUtils.getEntity(resource).getName())
+            .as(StepVerifier::create)
+            .expectNext("1-1", "1-2")
+            .thenCancel()
+            .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV3Empty() throws InterruptedException, TimeoutException {
         Packages packages = mock(Packages.class, RETURNS_SMART_NULLS);
@@ -135,6 +243,25 @@ public final class PaginationUtilsTest {
             .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestUaaResourcesOnDemand() throws InterruptedException, TimeoutException {
+        Users users = mock(Users.class, RETURNS_SMART_NULLS);
+
+        requestListUsers(users, 1, 100, 250);
+        requestListUsers(users, 101, 100, 250);
+        requestListUsers(users, 201, 100, 250);
+
+        PaginationUtils
+            .requestUaaResourcesOnDemand(startIndex -> users
+                .list(ListUsersRequest.builder()
+                    .startIndex(startIndex)
+                    .build()))
+            .as(StepVerifier::create)
+            .expectNextCount(3)
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestUaaResourcesEmpty() throws InterruptedException, TimeoutException {
         Users users = mock(Users.class, RETURNS_SMART_NULLS);
@@ -182,19 +309,24 @@ public final class PaginationUtilsTest {
     }
 
     private static void requestListSpaces(Spaces spaces, Integer page, Integer totalPages) {
+        requestListSpaces(spaces, page, totalPages, Duration.ZERO);
+    }
+
+    private static void requestListSpaces(Spaces spaces, Integer page, Integer totalPages, Duration delay) {
         when(spaces
             .list(ListSpacesRequest.builder()
                 .page(page)
                 .build()))
             .thenReturn(Mono
-                .just(ListSpacesResponse.builder()
+                .delay(delay)
+                .then(Mono.just(ListSpacesResponse.builder()
                     .resource(SpaceResource.builder()
                         .entity(SpaceEntity.builder()
                             .name(page.toString())
                             .build())
                         .build())
                     .totalPages(totalPages)
-                    .build()));
+                    .build())));
     }
 
     private static void requestListSpacesEmpty(Spaces spaces) {
@@ -209,6 +341,20 @@ public final class PaginationUtilsTest {
                     .build()));
     }
 
+    private static Flux<Tuple2<ListSpacesResponse, SpaceResource>> streamListSpaces(Integer page, Integer totalPages, Flux<Tuple2<ListSpacesResponse, SpaceResource>> remainder) {
+        ListSpacesResponse response = ListSpacesResponse.builder()
+            .totalPages(totalPages)
+            .build();
+
+        return Flux.range(1, 2)
+            .map(index -> Tuples.of(response, SpaceResource.builder()
+                .entity(SpaceEntity.builder()
+                    .name(String.format("%d-%d", page, index))
+                    .build())
+                .build()))
+            .concatWith(remainder);
+    }
+
     private static void requestListUsers(Users users, Integer startIndex, Integer itemsPerPage, Integer totalResults) {
         when(users
             .list(ListUsersRequest.builder()